@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.recyclerview.datasource.DatasourceObserver;
+
+/**
+ * Observer that counts received events, so the dispatch can't be eliminated as dead code.
+ */
+final class CountingDatasourceObserver extends DatasourceObserver {
+
+    int mEvents;
+
+    @Override
+    public void onChanged() {
+        mEvents++;
+    }
+
+    @Override
+    public void onItemRangeChanged(final int positionStart, final int itemCount,
+                                   final Object payload) {
+        mEvents++;
+    }
+
+    @Override
+    public void onItemRangeInserted(final int positionStart, final int itemCount) {
+        mEvents++;
+    }
+
+    @Override
+    public void onItemRangeRemoved(final int positionStart, final int itemCount) {
+        mEvents++;
+    }
+
+    @Override
+    public void onItemMoved(final int fromPosition, final int toPosition) {
+        mEvents++;
+    }
+
+}
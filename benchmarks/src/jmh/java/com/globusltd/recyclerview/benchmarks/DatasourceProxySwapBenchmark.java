@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.recyclerview.datasource.Datasource;
+import com.globusltd.recyclerview.datasource.DatasourceProxy;
+import com.globusltd.recyclerview.datasource.ListDatasource;
+import com.globusltd.recyclerview.diff.DiffCallback;
+import com.globusltd.recyclerview.diff.DiffCallbackFactory;
+import com.globusltd.recyclerview.diff.SimpleDatasourcesDiffCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DatasourceProxy#swap(Datasource)} under different
+ * {@link DiffCallback} configurations.
+ * <p>
+ * Each invocation swaps the proxy between two datasources, so the diff
+ * is calculated in both directions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DatasourceProxySwapBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int size;
+
+    /**
+     * The way the second datasource differs from the first one.
+     */
+    @Param({ "SAME", "APPEND", "PREPEND", "REMOVE", "CHANGE", "MOVE" })
+    public String change;
+
+    @Param({ "NONE", "NO_MOVES", "DETECT_MOVES", "PAYLOADS" })
+    public String diffCallback;
+
+    private DatasourceProxy<Item> mDatasourceProxy;
+    private CountingDatasourceObserver mObserver;
+    private Datasource<Item> mFirstDatasource;
+    private Datasource<Item> mSecondDatasource;
+    private boolean mSwapped;
+
+    @Setup
+    public void setUp() {
+        final List<Item> items = Item.createItems(size);
+        mFirstDatasource = new ListDatasource<>(items);
+        mSecondDatasource = new ListDatasource<>(applyChange(items));
+
+        mDatasourceProxy = new DatasourceProxy<>(mFirstDatasource, createDiffCallbackFactory());
+        mObserver = new CountingDatasourceObserver();
+        mDatasourceProxy.registerDatasourceObserver(mObserver);
+    }
+
+    private List<Item> applyChange(final List<Item> items) {
+        final List<Item> changedItems = Item.createItems(size);
+        final int step = 10;
+        switch (change) {
+            case "SAME":
+                break;
+
+            case "APPEND":
+                for (int i = 0; i < size / step; i++) {
+                    changedItems.add(new Item(size + i, 0));
+                }
+                break;
+
+            case "PREPEND":
+                for (int i = 0; i < size / step; i++) {
+                    changedItems.add(0, new Item(size + i, 0));
+                }
+                break;
+
+            case "REMOVE":
+                for (int i = size - step; i >= 0; i -= step) {
+                    changedItems.remove(i);
+                }
+                break;
+
+            case "CHANGE":
+                for (int i = 0; i < size; i += step) {
+                    changedItems.set(i, new Item(i, 1));
+                }
+                break;
+
+            case "MOVE":
+                for (int i = 0; i < size / step; i++) {
+                    changedItems.add(changedItems.remove(i * step));
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown change: " + change);
+        }
+        return changedItems;
+    }
+
+    private DiffCallbackFactory<Item> createDiffCallbackFactory() {
+        switch (diffCallback) {
+            case "NONE":
+                return null;
+
+            case "NO_MOVES":
+                return new ItemDiffCallbackFactory(false, false);
+
+            case "DETECT_MOVES":
+                return new ItemDiffCallbackFactory(true, false);
+
+            case "PAYLOADS":
+                return new ItemDiffCallbackFactory(true, true);
+
+            default:
+                throw new IllegalArgumentException("Unknown diff callback: " + diffCallback);
+        }
+    }
+
+    @Benchmark
+    public int swap() {
+        mDatasourceProxy.swap(mSwapped ? mFirstDatasource : mSecondDatasource);
+        mSwapped = !mSwapped;
+        return mObserver.mEvents;
+    }
+
+    private static class ItemDiffCallbackFactory implements DiffCallbackFactory<Item> {
+
+        private final boolean mShouldDetectMoves;
+        private final boolean mProvidePayloads;
+
+        ItemDiffCallbackFactory(final boolean shouldDetectMoves, final boolean providePayloads) {
+            mShouldDetectMoves = shouldDetectMoves;
+            mProvidePayloads = providePayloads;
+        }
+
+        @Override
+        public DiffCallback createDiffCallback(final Datasource<? extends Item> oldDatasource,
+                                               final Datasource<? extends Item> newDatasource) {
+            return new SimpleDatasourcesDiffCallback<Item>(oldDatasource, newDatasource,
+                    mShouldDetectMoves) {
+
+                @Override
+                public boolean areItemsTheSame(final Item oldItem,
+                                               final Item newItem) {
+                    return (oldItem.mId == newItem.mId);
+                }
+
+                @Override
+                public boolean areContentsTheSame(final Item oldItem,
+                                                  final Item newItem) {
+                    return (oldItem.mContent == newItem.mContent);
+                }
+
+                @Override
+                public Object getChangePayload(final Item oldItem,
+                                               final Item newItem) {
+                    return (mProvidePayloads ? newItem : null);
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import com.globusltd.recyclerview.datasource.Datasource;
+import com.globusltd.recyclerview.datasource.ListDatasource;
+import com.globusltd.recyclerview.diff.DiffCallback;
+import com.globusltd.recyclerview.diff.KeyedDatasourcesDiffCallback;
+import com.globusltd.recyclerview.diff.KeyedDiff;
+import com.globusltd.recyclerview.diff.ParallelDiffCallback;
+import com.globusltd.recyclerview.diff.SimpleDatasourcesDiffCallback;
+import com.globusltd.recyclerview.diff.SnapshotDatasourcesDiffCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Myers's difference algorithm provided by DiffUtil with {@link KeyedDiff}.
+ * SNAPSHOT runs Myers's algorithm over primitive snapshots of datasources,
+ * PARALLEL runs it over chunks of datasources on all available processors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiffBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    /**
+     * The way the new datasource differs from the old one.
+     */
+    @Param({ "APPEND", "REMOVE", "CHANGE", "MOVE", "SHUFFLE" })
+    public String change;
+
+    @Param({ "MYERS", "SNAPSHOT", "PARALLEL", "KEYED" })
+    public String engine;
+
+    private Datasource<Item> mOldDatasource;
+    private Datasource<Item> mNewDatasource;
+    private CountingListUpdateCallback mUpdateCallback;
+    private ExecutorService mExecutor;
+    private int mParallelism;
+
+    @Setup
+    public void setUp() {
+        mOldDatasource = new ListDatasource<>(Item.createItems(size));
+        mNewDatasource = new ListDatasource<>(applyChange());
+        mUpdateCallback = new CountingListUpdateCallback();
+        mParallelism = Runtime.getRuntime().availableProcessors();
+        mExecutor = Executors.newFixedThreadPool(mParallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mExecutor.shutdown();
+    }
+
+    private List<Item> applyChange() {
+        final List<Item> changedItems = Item.createItems(size);
+        final int step = 10;
+        switch (change) {
+            case "APPEND":
+                for (int i = 0; i < size / step; i++) {
+                    changedItems.add(new Item(size + i, 0));
+                }
+                break;
+
+            case "REMOVE":
+                for (int i = size - step; i >= 0; i -= step) {
+                    changedItems.remove(i);
+                }
+                break;
+
+            case "CHANGE":
+                for (int i = 0; i < size; i += step) {
+                    changedItems.set(i, new Item(i, 1));
+                }
+                break;
+
+            case "MOVE":
+                for (int i = 0; i < size / step; i++) {
+                    changedItems.add(changedItems.remove(i * step));
+                }
+                break;
+
+            case "SHUFFLE":
+                // Swap random pairs of 1% of items
+                final Random random = new Random(size);
+                for (int i = 0; i < size / 100; i++) {
+                    Collections.swap(changedItems, random.nextInt(size), random.nextInt(size));
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown change: " + change);
+        }
+        return changedItems;
+    }
+
+    private DiffCallback createDiffCallback() {
+        switch (engine) {
+            case "MYERS":
+                return new SimpleDatasourcesDiffCallback<Item>(mOldDatasource, mNewDatasource) {
+
+                    @Override
+                    public boolean areItemsTheSame(final Item oldItem, final Item newItem) {
+                        return (oldItem.mId == newItem.mId);
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(final Item oldItem, final Item newItem) {
+                        return (oldItem.mContent == newItem.mContent);
+                    }
+
+                };
+
+            case "SNAPSHOT":
+                return new SnapshotDatasourcesDiffCallback<Item>(mOldDatasource, mNewDatasource) {
+
+                    @Override
+                    public long getItemId(final Item item) {
+                        return item.mId;
+                    }
+
+                    @Override
+                    public int getContentHash(final Item item) {
+                        return item.mContent;
+                    }
+
+                };
+
+            case "PARALLEL":
+                return new ParallelDiffCallback(createKeyedDiffCallback(), mExecutor, mParallelism, 1000);
+
+            case "KEYED":
+                return createKeyedDiffCallback();
+
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    private KeyedDatasourcesDiffCallback<Item> createKeyedDiffCallback() {
+        return new KeyedDatasourcesDiffCallback<Item>(mOldDatasource, mNewDatasource) {
+
+            @Override
+            public long getItemId(final Item item) {
+                return item.mId;
+            }
+
+            @Override
+            public boolean areContentsTheSame(final Item oldItem, final Item newItem) {
+                return (oldItem.mContent == newItem.mContent);
+            }
+
+        };
+    }
+
+    @Benchmark
+    public int calculateDiff() {
+        createDiffCallback().calculateDiff().dispatchUpdatesTo(mUpdateCallback);
+        return mUpdateCallback.mEvents;
+    }
+
+    private static class CountingListUpdateCallback implements ListUpdateCallback {
+
+        int mEvents;
+
+        @Override
+        public void onInserted(final int position, final int count) {
+            mEvents++;
+        }
+
+        @Override
+        public void onRemoved(final int position, final int count) {
+            mEvents++;
+        }
+
+        @Override
+        public void onMoved(final int fromPosition, final int toPosition) {
+            mEvents++;
+        }
+
+        @Override
+        public void onChanged(final int position, final int count, final Object payload) {
+            mEvents++;
+        }
+
+    }
+
+}
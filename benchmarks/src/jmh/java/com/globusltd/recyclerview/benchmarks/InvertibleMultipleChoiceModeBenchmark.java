@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import android.os.Bundle;
+
+import com.globusltd.recyclerview.choice.InvertibleMultipleChoiceMode;
+import com.globusltd.recyclerview.choice.MultipleChoiceMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares "select all except a few" over a huge list in {@link InvertibleMultipleChoiceMode}
+ * with checking every id explicitly in {@link MultipleChoiceMode}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InvertibleMultipleChoiceModeBenchmark {
+
+    private static final int EXCLUDED_ITEMS = 10;
+
+    @Param({ "10000", "1000000" })
+    public int items;
+
+    private long[] mItemIds;
+    private long[] mExcludedIds;
+
+    @Setup
+    public void setUp() {
+        mItemIds = new long[items];
+        for (int i = 0; i < items; i++) {
+            mItemIds[i] = i;
+        }
+
+        mExcludedIds = new long[EXCLUDED_ITEMS];
+        for (int i = 0; i < EXCLUDED_ITEMS; i++) {
+            mExcludedIds[i] = (long) i * (items / EXCLUDED_ITEMS);
+        }
+    }
+
+    @Benchmark
+    public Bundle selectAllExceptInverted() {
+        final InvertibleMultipleChoiceMode choiceMode = new InvertibleMultipleChoiceMode();
+        choiceMode.selectAll(items);
+        choiceMode.setItemsChecked(mExcludedIds, false);
+
+        final Bundle outState = new Bundle();
+        choiceMode.onSaveInstanceState(outState);
+        return outState;
+    }
+
+    @Benchmark
+    public Bundle selectAllExceptExplicit() {
+        final MultipleChoiceMode choiceMode = new MultipleChoiceMode();
+        choiceMode.setItemsChecked(mItemIds, true);
+        choiceMode.setItemsChecked(mExcludedIds, false);
+
+        final Bundle outState = new Bundle();
+        choiceMode.onSaveInstanceState(outState);
+        return outState;
+    }
+
+}
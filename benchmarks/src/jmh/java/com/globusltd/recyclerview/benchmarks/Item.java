@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable element with a stable id and a content version.
+ */
+final class Item {
+
+    final long mId;
+    final int mContent;
+
+    Item(final long id, final int content) {
+        mId = id;
+        mContent = content;
+    }
+
+    static List<Item> createItems(final int count) {
+        final List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i, 0));
+        }
+        return items;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.recyclerview.lifecycle.LifecycleCallbacks;
+import com.globusltd.recyclerview.lifecycle.LifecycleComposite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LifecycleComposite} registration churn that happens when
+ * view holders are bound and recycled while the host is resumed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LifecycleCompositeBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int registeredCallbacks;
+
+    private LifecycleComposite mLifecycleComposite;
+    private CountingLifecycleCallbacks[] mLifecycleCallbacks;
+    private CountingLifecycleCallbacks mExtraLifecycleCallbacks;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        mLifecycleComposite = new LifecycleComposite();
+        mLifecycleComposite.onStart();
+        mLifecycleComposite.onResume();
+
+        mLifecycleCallbacks = new CountingLifecycleCallbacks[registeredCallbacks];
+        for (int i = 0; i < registeredCallbacks; i++) {
+            mLifecycleCallbacks[i] = new CountingLifecycleCallbacks();
+            mLifecycleComposite.registerLifecycleCallbacks(mLifecycleCallbacks[i]);
+        }
+        mExtraLifecycleCallbacks = new CountingLifecycleCallbacks();
+    }
+
+    @Benchmark
+    public int registerAndUnregister() {
+        mLifecycleComposite.registerLifecycleCallbacks(mExtraLifecycleCallbacks);
+        mLifecycleComposite.unregisterLifecycleCallbacks(mExtraLifecycleCallbacks);
+        return mExtraLifecycleCallbacks.mEvents;
+    }
+
+    @Benchmark
+    public int unregisterAndRegisterExisting() {
+        mIndex = (mIndex + 1) % registeredCallbacks;
+        final CountingLifecycleCallbacks lifecycleCallbacks = mLifecycleCallbacks[mIndex];
+        mLifecycleComposite.unregisterLifecycleCallbacks(lifecycleCallbacks);
+        mLifecycleComposite.registerLifecycleCallbacks(lifecycleCallbacks);
+        return lifecycleCallbacks.mEvents;
+    }
+
+    @Benchmark
+    public int rebindExisting() {
+        mIndex = (mIndex + 1) % registeredCallbacks;
+        final CountingLifecycleCallbacks lifecycleCallbacks = mLifecycleCallbacks[mIndex];
+        mLifecycleComposite.rebindLifecycleCallbacks(lifecycleCallbacks);
+        return lifecycleCallbacks.mEvents;
+    }
+
+    @Benchmark
+    public int pauseAndResume() {
+        mLifecycleComposite.onPause();
+        mLifecycleComposite.onResume();
+        return mExtraLifecycleCallbacks.mEvents;
+    }
+
+    private static class CountingLifecycleCallbacks implements LifecycleCallbacks {
+
+        int mEvents;
+
+        @Override
+        public void onStart() {
+            mEvents++;
+        }
+
+        @Override
+        public void onResume() {
+            mEvents++;
+        }
+
+        @Override
+        public void onPause() {
+            mEvents++;
+        }
+
+        @Override
+        public void onStop() {
+            mEvents++;
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.recyclerview.datasource.ListDatasource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ListDatasource} mutations dispatched to a number of observers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListDatasourceBenchmark {
+
+    private static final int SIZE = 1000;
+    private static final int BATCH_SIZE = 64;
+
+    @Param({ "0", "1", "4", "16" })
+    public int observers;
+
+    private ListDatasource<Item> mDatasource;
+    private Item mItem;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        mDatasource = new ListDatasource<>(Item.createItems(SIZE));
+        for (int i = 0; i < observers; i++) {
+            mDatasource.registerDatasourceObserver(new CountingDatasourceObserver());
+        }
+        mItem = new Item(SIZE, 0);
+    }
+
+    @Benchmark
+    public int addAndRemoveLast() {
+        mDatasource.add(mItem);
+        mDatasource.remove(SIZE);
+        return mDatasource.size();
+    }
+
+    @Benchmark
+    public Item set() {
+        mPosition = (mPosition + 1) % SIZE;
+        return mDatasource.set(mPosition, mItem);
+    }
+
+    @Benchmark
+    public int move() {
+        mPosition = (mPosition + 1) % SIZE;
+        mDatasource.move(mPosition, SIZE - 1 - mPosition);
+        return mDatasource.size();
+    }
+
+    @Benchmark
+    public int addAndRemoveRange() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            mDatasource.add(mItem);
+        }
+        mDatasource.removeRange(SIZE, BATCH_SIZE);
+        return mDatasource.size();
+    }
+
+    @Benchmark
+    public int addAndRemoveRangeInBatch() {
+        mDatasource.beginBatch();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            mDatasource.add(mItem);
+        }
+        mDatasource.removeRange(SIZE, BATCH_SIZE);
+        mDatasource.endBatch();
+        return mDatasource.size();
+    }
+
+}
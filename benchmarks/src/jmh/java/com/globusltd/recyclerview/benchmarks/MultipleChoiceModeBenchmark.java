@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.collections.LongArrayList;
+import com.globusltd.recyclerview.choice.MultipleChoiceMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking and lookups of item ids in {@link MultipleChoiceMode}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MultipleChoiceModeBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({ "1000", "10000", "100000" })
+    public int checkedItems;
+
+    private MultipleChoiceMode mChoiceMode;
+    private long[] mCheckedIds;
+
+    /**
+     * Half of the probes are checked ids, another half are unchecked ones.
+     */
+    private long[] mProbeIds;
+    private int mProbe;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42L);
+        mCheckedIds = new long[checkedItems];
+        for (int i = 0; i < checkedItems; i++) {
+            // Ids are spread over the range like database row ids with gaps
+            mCheckedIds[i] = i * 4L + random.nextInt(2);
+        }
+
+        mChoiceMode = new MultipleChoiceMode();
+        mChoiceMode.setItemsChecked(mCheckedIds, true);
+
+        mProbeIds = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            final long checkedId = mCheckedIds[random.nextInt(checkedItems)];
+            mProbeIds[i] = ((i & 1) == 0 ? checkedId : checkedId + 2);
+        }
+    }
+
+    private long nextProbeId() {
+        mProbe = (mProbe + 1) & (PROBES - 1);
+        return mProbeIds[mProbe];
+    }
+
+    private long nextCheckedId() {
+        mProbe = (mProbe + 1) & (PROBES - 1);
+        return mCheckedIds[mProbe];
+    }
+
+    @Benchmark
+    public boolean isItemChecked() {
+        return mChoiceMode.isItemChecked(nextProbeId());
+    }
+
+    @Benchmark
+    public boolean uncheckAndCheck() {
+        final long itemId = nextCheckedId();
+        mChoiceMode.setItemChecked(itemId, false);
+        mChoiceMode.setItemChecked(itemId, true);
+        return mChoiceMode.isItemChecked(itemId);
+    }
+
+    @Benchmark
+    public int checkAll() {
+        final MultipleChoiceMode choiceMode = new MultipleChoiceMode();
+        for (final long itemId : mCheckedIds) {
+            choiceMode.setItemChecked(itemId, true);
+        }
+        return choiceMode.getCheckedItemCount();
+    }
+
+    @Benchmark
+    public int setItemsChecked() {
+        final MultipleChoiceMode choiceMode = new MultipleChoiceMode();
+        choiceMode.setItemsChecked(mCheckedIds, true);
+        return choiceMode.getCheckedItemCount();
+    }
+
+    @Benchmark
+    public LongArrayList getCheckedItemsAfterChange() {
+        final long itemId = nextCheckedId();
+        mChoiceMode.setItemChecked(itemId, false);
+        mChoiceMode.setItemChecked(itemId, true);
+        return mChoiceMode.getCheckedItems();
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.recyclerview.datasource.DatasourceObservable;
+import com.globusltd.recyclerview.util.CopyOnWriteObservable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registration of observers in {@link CopyOnWriteObservable} and dispatching
+ * notifications to them, {@link DatasourceObservable} is used as a typical subclass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObservableBenchmark {
+
+    @Param({ "1", "10", "100" })
+    public int registeredObservers;
+
+    private DatasourceObservable mObservable;
+    private CountingDatasourceObserver[] mObservers;
+    private CountingDatasourceObserver mExtraObserver;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        mObservable = new DatasourceObservable();
+        mObservers = new CountingDatasourceObserver[registeredObservers];
+        for (int i = 0; i < registeredObservers; i++) {
+            mObservers[i] = new CountingDatasourceObserver();
+            mObservable.registerObserver(mObservers[i]);
+        }
+        mExtraObserver = new CountingDatasourceObserver();
+    }
+
+    @Benchmark
+    public boolean registerAndUnregister() {
+        mObservable.registerObserver(mExtraObserver);
+        mObservable.unregisterObserver(mExtraObserver);
+        return mObservable.hasObservers();
+    }
+
+    @Benchmark
+    public boolean unregisterAndRegisterExisting() {
+        mIndex = (mIndex + 1) % registeredObservers;
+        mObservable.unregisterObserver(mObservers[mIndex]);
+        mObservable.registerObserver(mObservers[mIndex]);
+        return mObservable.hasObservers();
+    }
+
+    @Benchmark
+    public int notifyItemRangeChanged() {
+        mObservable.notifyItemRangeChanged(0, 1, null);
+        return mObservers[0].mEvents;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.benchmarks;
+
+import com.globusltd.recyclerview.datasource.Datasource;
+import com.globusltd.recyclerview.datasource.ListDatasource;
+import com.globusltd.recyclerview.datasource.PersistentListDatasource;
+import com.globusltd.recyclerview.diff.DiffResult;
+import com.globusltd.recyclerview.diff.SimpleDatasourcesDiffCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures producing a new version of a datasource with a single element inserted
+ * in the middle and calculating the diff between the versions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersistentListDatasourceBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    @Param({ "LIST", "PERSISTENT" })
+    public String datasource;
+
+    private List<Item> mItems;
+    private PersistentListDatasource<Item> mPersistentDatasource;
+    private Datasource<Item> mOldDatasource;
+
+    @Setup
+    public void setUp() {
+        mItems = Item.createItems(size);
+        mPersistentDatasource = new PersistentListDatasource<>(mItems);
+        mOldDatasource = ("LIST".equals(datasource) ?
+                new ListDatasource<>(mItems) : mPersistentDatasource);
+    }
+
+    private Datasource<Item> insert(final Item item) {
+        switch (datasource) {
+            case "LIST":
+                final List<Item> items = new ArrayList<>(mItems);
+                items.add(size / 2, item);
+                return new ListDatasource<>(items);
+
+            case "PERSISTENT":
+                return mPersistentDatasource.add(size / 2, item);
+
+            default:
+                throw new IllegalArgumentException("Unknown datasource: " + datasource);
+        }
+    }
+
+    @Benchmark
+    public DiffResult insertAndDiff() {
+        final Datasource<Item> newDatasource = insert(new Item(size, 0));
+        return new SimpleDatasourcesDiffCallback<Item>(mOldDatasource, newDatasource) {
+
+            @Override
+            public boolean areItemsTheSame(final Item oldItem, final Item newItem) {
+                return (oldItem.mId == newItem.mId);
+            }
+
+            @Override
+            public boolean areContentsTheSame(final Item oldItem, final Item newItem) {
+                return (oldItem.mContent == newItem.mContent);
+            }
+
+        }.calculateDiff();
+    }
+
+}
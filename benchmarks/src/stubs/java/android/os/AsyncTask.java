@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.os;
+
+import java.util.concurrent.Executor;
+
+/**
+ * JVM stub of {@code android.os.AsyncTask}. Benchmarks measure synchronous code paths only,
+ * so tasks are executed on the calling thread.
+ */
+public abstract class AsyncTask<Params, Progress, Result> {
+
+    public static final Executor THREAD_POOL_EXECUTOR = new Executor() {
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+
+    };
+
+}
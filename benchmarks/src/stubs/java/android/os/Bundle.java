@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.os;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stub of {@code android.os.Bundle} backed by a {@link HashMap}.
+ */
+public final class Bundle {
+
+    private final Map<String, Object> mValues = new HashMap<>();
+
+    public void putBundle(final String key, final Bundle value) {
+        mValues.put(key, value);
+    }
+
+    public Bundle getBundle(final String key) {
+        return (Bundle) mValues.get(key);
+    }
+
+    public void putBoolean(final String key, final boolean value) {
+        mValues.put(key, value);
+    }
+
+    public boolean getBoolean(final String key) {
+        final Object value = mValues.get(key);
+        return (value != null && (Boolean) value);
+    }
+
+    public void putInt(final String key, final int value) {
+        mValues.put(key, value);
+    }
+
+    public int getInt(final String key) {
+        final Object value = mValues.get(key);
+        return (value != null ? (Integer) value : 0);
+    }
+
+    public void putParcelable(final String key, final Parcelable value) {
+        mValues.put(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Parcelable> T getParcelable(final String key) {
+        return (T) mValues.get(key);
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.collections;
+
+import android.os.Parcelable;
+
+import java.util.Arrays;
+
+/**
+ * JVM stub of {@code com.globusltd.collections.LongArrayList}
+ * that implements the methods used by the library.
+ */
+public class LongArrayList implements Parcelable {
+
+    private long[] mValues;
+    private int mSize;
+
+    public LongArrayList() {
+        mValues = new long[10];
+    }
+
+    public LongArrayList(final LongArrayList list) {
+        mValues = Arrays.copyOf(list.mValues, Math.max(list.mSize, 1));
+        mSize = list.mSize;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isEmpty() {
+        return (mSize == 0);
+    }
+
+    public long get(final int index) {
+        if (index >= mSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+        }
+        return mValues[index];
+    }
+
+    public boolean add(final long value) {
+        if (mSize == mValues.length) {
+            mValues = Arrays.copyOf(mValues, mSize + (mSize >> 1) + 1);
+        }
+        mValues[mSize++] = value;
+        return true;
+    }
+
+    public void clear() {
+        mSize = 0;
+    }
+
+}
@@ -16,6 +16,7 @@
 package com.globusltd.recyclerview;
 
 import android.support.annotation.CallSuper;
+import android.support.annotation.IntRange;
 import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -30,8 +31,13 @@ import com.globusltd.recyclerview.datasource.DatasourceOwner;
 import com.globusltd.recyclerview.datasource.DatasourceProxy;
 import com.globusltd.recyclerview.datasource.Datasources;
 import com.globusltd.recyclerview.diff.DiffCallbackFactory;
+import com.globusltd.recyclerview.diff.FieldChanges;
+import com.globusltd.recyclerview.util.CopyOnWriteObservable;
+import com.globusltd.recyclerview.view.TextLayoutCache;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Base {@link RecyclerView.Adapter} that holds a reference to the {@link Datasource} object.
@@ -53,9 +59,54 @@ import java.util.List;
 public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
         extends RecyclerView.Adapter<VH> implements DatasourceSwappable<E> {
 
+    private static final int DEFAULT_PREFETCH_DISTANCE = 10;
+
     @NonNull
     private final DatasourceOwner<E> mDatasourceOwner;
 
+    @NonNull
+    private final BindingObservable mBindingObservable;
+
+    @NonNull
+    private final InflationStats mInflationStats;
+
+    /**
+     * Partial binders indexed by fields, created when the first binder is registered.
+     */
+    @Nullable
+    private PartialBinder<? super E, ? super VH>[] mPartialBinders;
+
+    /**
+     * Mask of the fields that have partial binders.
+     */
+    private int mPartialBindersMask;
+
+    @NonNull
+    private final PrefetchScrollListener mPrefetchScrollListener;
+
+    @Nullable
+    private TextLayoutCache<? super E> mTextLayoutCache;
+
+    @Nullable
+    private BindModelCache<? super E, ?> mBindModelCache;
+
+    private int mPrefetchDistance = DEFAULT_PREFETCH_DISTANCE;
+
+    /**
+     * Items read from the datasource for prefetching, reused between frames.
+     */
+    @NonNull
+    private final ArrayList<E> mPrefetchItems;
+
+    /**
+     * The farthest position prefetched in the scroll direction: the position after
+     * the last prefetched one when scrolled forward, the first prefetched position
+     * when scrolled backward, or {@link RecyclerView#NO_POSITION} if nothing is prefetched.
+     */
+    private int mPrefetchEdge = RecyclerView.NO_POSITION;
+
+    private boolean mPrefetchForward;
+
     public Adapter() {
         this(Datasources.<E>empty());
     }
@@ -71,6 +122,209 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
         final DatasourceProxy<E> datasourceProxy = new DatasourceProxy<>(datasource, diffCallbackFactory);
         final DatasourceObserver datasourceObserver = new AdapterDatasourceObserver(this);
         mDatasourceOwner = new DatasourceOwner<>(datasourceProxy, datasourceObserver);
+        mBindingObservable = new BindingObservable();
+        mInflationStats = new InflationStats();
+        mPrefetchScrollListener = new PrefetchScrollListener(this);
+        mPrefetchItems = new ArrayList<>();
+    }
+
+    /**
+     * Add a new {@link BindingObserver} to the {@link Adapter}, which will be called
+     * when view holders are bound and when adapter positions of items are changed.
+     *
+     * @param bindingObserver The interface to call.
+     */
+    public void registerBindingObserver(@NonNull final BindingObserver bindingObserver) {
+        mBindingObservable.registerObserver(bindingObserver);
+    }
+
+    /**
+     * Remove a {@link BindingObserver} object that was previously registered
+     * with {@link #registerBindingObserver(BindingObserver)}.
+     */
+    public void unregisterBindingObserver(@NonNull final BindingObserver bindingObserver) {
+        mBindingObservable.unregisterObserver(bindingObserver);
+    }
+
+    /**
+     * Registers a binder that updates views displaying the field when only the field has been
+     * changed. When all of the {@link FieldChanges} delivered to the item have binders,
+     * the binders are called instead of {@link #onBindViewHolder(RecyclerView.ViewHolder, Object, int, List)},
+     * otherwise the item is bound as usual.
+     *
+     * @param field  The number of the field.
+     * @param binder The binder to update views displaying the field.
+     * @see FieldChanges
+     */
+    public void registerPartialBinder(@IntRange(from = 0, to = 31) final int field,
+                                      @NonNull final PartialBinder<? super E, ? super VH> binder) {
+        final int mask = FieldChanges.maskOf(field);
+        if (mPartialBinders == null) {
+            @SuppressWarnings("unchecked")
+            final PartialBinder<? super E, ? super VH>[] partialBinders =
+                    (PartialBinder<? super E, ? super VH>[]) new PartialBinder<?, ?>[Integer.SIZE];
+            mPartialBinders = partialBinders;
+        }
+        mPartialBinders[field] = binder;
+        mPartialBindersMask |= mask;
+    }
+
+    /**
+     * Removes a binder that was previously registered with
+     * {@link #registerPartialBinder(int, PartialBinder)}.
+     *
+     * @param field The number of the field.
+     */
+    public void unregisterPartialBinder(@IntRange(from = 0, to = 31) final int field) {
+        final int mask = FieldChanges.maskOf(field);
+        if (mPartialBinders != null) {
+            mPartialBinders[field] = null;
+            mPartialBindersMask &= ~mask;
+        }
+    }
+
+    /**
+     * Sets the cache of text layouts that are built in the background for items
+     * that are about to appear on the screen. Text layouts are not prefetched by default.
+     *
+     * @param textLayoutCache The cache of text layouts or null to stop prefetching them.
+     * @see #setPrefetchDistance(int)
+     */
+    public void setTextLayoutCache(@Nullable final TextLayoutCache<? super E> textLayoutCache) {
+        mTextLayoutCache = textLayoutCache;
+        resetPrefetch();
+    }
+
+    /**
+     * Returns the cache of text layouts set by {@link #setTextLayoutCache(TextLayoutCache)}.
+     * View holders should take layouts from it when they are bound.
+     */
+    @Nullable
+    public TextLayoutCache<? super E> getTextLayoutCache() {
+        return mTextLayoutCache;
+    }
+
+    /**
+     * Sets the cache of bind models that are prepared in the background for items
+     * that are about to appear on the screen. Bind models are not prepared by default.
+     * <p>
+     * The cache follows position changes dispatched by the datasource, so it should
+     * be set to a single adapter only.
+     *
+     * @param bindModelCache The cache of bind models or null to stop preparing them.
+     * @see #setPrefetchDistance(int)
+     */
+    public void setBindModelCache(@Nullable final BindModelCache<? super E, ?> bindModelCache) {
+        if (mBindModelCache != null) {
+            mBindModelCache.evictAll();
+        }
+        mBindModelCache = bindModelCache;
+        if (bindModelCache != null) {
+            bindModelCache.evictAll();
+        }
+        resetPrefetch();
+    }
+
+    /**
+     * Returns the cache of bind models set by {@link #setBindModelCache(BindModelCache)}.
+     * View holders should take models from it when they are bound.
+     */
+    @Nullable
+    public BindModelCache<? super E, ?> getBindModelCache() {
+        return mBindModelCache;
+    }
+
+    /**
+     * Sets the number of items ahead of the scroll direction that are prepared
+     * in the background. The distance grows with the scroll velocity.
+     * Default value is {@value #DEFAULT_PREFETCH_DISTANCE}.
+     *
+     * @param prefetchDistance The number of items or zero to disable prefetching.
+     */
+    public void setPrefetchDistance(@IntRange(from = 0) final int prefetchDistance) {
+        mPrefetchDistance = prefetchDistance;
+        resetPrefetch();
+    }
+
+    /**
+     * Returns the number of items ahead of the scroll direction that are prepared in the background.
+     */
+    @IntRange(from = 0)
+    public int getPrefetchDistance() {
+        return mPrefetchDistance;
+    }
+
+    /**
+     * Called when items are about to appear on the screen while the RecyclerView is scrolled.
+     * Only items that have not been prefetched during the current scroll are read from the
+     * datasource, so the datasource is not read again on every frame.
+     *
+     * @param positionStart Position of the first item.
+     * @param itemCount     Number of items.
+     * @param forward       True if items are after the visible ones, false if before.
+     */
+    void onPrefetch(final int positionStart, final int itemCount, final boolean forward) {
+        final TextLayoutCache<? super E> textLayoutCache = mTextLayoutCache;
+        final BindModelCache<? super E, ?> bindModelCache = mBindModelCache;
+        if ((textLayoutCache == null && bindModelCache == null) || itemCount <= 0) {
+            return;
+        }
+
+        // Skip positions prefetched in previous frames if the window continues them
+        final boolean continued = (mPrefetchEdge != RecyclerView.NO_POSITION &&
+                mPrefetchForward == forward);
+        final int positionEnd = positionStart + itemCount;
+        int start = positionStart;
+        int end = positionEnd;
+        if (forward) {
+            if (continued && positionStart <= mPrefetchEdge) {
+                start = Math.max(positionStart, mPrefetchEdge);
+                mPrefetchEdge = Math.max(positionEnd, mPrefetchEdge);
+            } else {
+                mPrefetchEdge = positionEnd;
+            }
+        } else {
+            if (continued && positionEnd >= mPrefetchEdge) {
+                end = Math.min(positionEnd, mPrefetchEdge);
+                mPrefetchEdge = Math.min(positionStart, mPrefetchEdge);
+            } else {
+                mPrefetchEdge = positionStart;
+            }
+        }
+        mPrefetchForward = forward;
+        if (start >= end) {
+            return;
+        }
+
+        // Closest items go first
+        final Datasource<? extends E> datasource = getDatasource();
+        final ArrayList<E> items = mPrefetchItems;
+        for (int i = start; i < end; i++) {
+            items.add(datasource.get(forward ? i : start + end - 1 - i));
+        }
+        if (bindModelCache != null) {
+            bindModelCache.prefetch(forward ? start : end - 1, forward ? 1 : -1, items);
+        }
+        if (textLayoutCache != null) {
+            textLayoutCache.prefetch(items);
+        }
+        items.clear();
+    }
+
+    /**
+     * Forgets positions prefetched during the current scroll, so they are prefetched again.
+     * Called when items or their positions have been changed.
+     */
+    void resetPrefetch() {
+        mPrefetchEdge = RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * Notifies binding observers that adapter positions may have been changed.
+     * Called after the structural change has been dispatched to RecyclerView.
+     */
+    void notifyPositionsChanged() {
+        mBindingObservable.notifyPositionsChanged();
     }
 
     /**
@@ -81,6 +335,7 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
     public void onAttachedToRecyclerView(final RecyclerView recyclerView) {
         super.onAttachedToRecyclerView(recyclerView);
         mDatasourceOwner.onAttachedToRecyclerView(recyclerView);
+        recyclerView.addOnScrollListener(mPrefetchScrollListener);
     }
 
     /**
@@ -89,6 +344,7 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
     @CallSuper
     @Override
     public void onDetachedFromRecyclerView(final RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(mPrefetchScrollListener);
         mDatasourceOwner.onDetachedFromRecyclerView(recyclerView);
         super.onDetachedFromRecyclerView(recyclerView);
     }
@@ -102,6 +358,25 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
         return mDatasourceOwner.swap(datasource);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void swapAsync(@NonNull final Datasource<? extends E> datasource,
+                                @Nullable final SwapCallback<E> callback) {
+        mDatasourceOwner.swapAsync(datasource, callback);
+    }
+
+    /**
+     * Sets an {@link Executor} that is used to calculate diffs
+     * in {@link #swapAsync(Datasource, SwapCallback)}.
+     *
+     * @param executor The executor to calculate diffs on.
+     */
+    public void setDiffExecutor(@NonNull final Executor executor) {
+        mDatasourceOwner.setDiffExecutor(executor);
+    }
+
     @NonNull
     public Datasource<? extends E> getDatasource() {
         return mDatasourceOwner.getDatasource();
@@ -115,10 +390,23 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
         return getDatasource().size();
     }
 
+    /**
+     * Returns statistics of view holder creation times per view type.
+     *
+     * @see ViewHolderWarmUp
+     */
+    @NonNull
+    public InflationStats getInflationStats() {
+        return mInflationStats;
+    }
+
     @Override
     public final VH onCreateViewHolder(@NonNull final ViewGroup parent, final int viewType) {
+        final long startTime = System.nanoTime();
         final LayoutInflater inflater = LayoutInflater.from(parent.getContext());
-        return onCreateViewHolder(inflater, parent, viewType);
+        final VH holder = onCreateViewHolder(inflater, parent, viewType);
+        mInflationStats.record(viewType, System.nanoTime() - startTime);
+        return holder;
     }
 
     /**
@@ -177,7 +465,45 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
     public final void onBindViewHolder(final VH holder, final int position,
                                        final List<Object> payloads) {
         final E item = getDatasource().get(position);
-        onBindViewHolder(holder, item, position, payloads);
+        if (!bindChangedFields(holder, item, position, payloads)) {
+            onBindViewHolder(holder, item, position, payloads);
+        }
+        mBindingObservable.notifyBound(holder);
+    }
+
+    /**
+     * Calls partial binders of the changed fields if all of them have binders.
+     *
+     * @return true if the view holder has been bound, false if it needs a regular bind.
+     */
+    private boolean bindChangedFields(@NonNull final VH holder, @NonNull final E item,
+                                      final int position, @NonNull final List<Object> payloads) {
+        final PartialBinder<? super E, ? super VH>[] partialBinders = mPartialBinders;
+        final int size = payloads.size();
+        if (partialBinders == null || size == 0) {
+            return false;
+        }
+
+        // Payloads are merged without allocations since it runs for every bind
+        int fields = 0;
+        for (int i = 0; i < size; i++) {
+            final Object payload = payloads.get(i);
+            if (!(payload instanceof FieldChanges)) {
+                return false;
+            }
+            fields |= ((FieldChanges) payload).getMask();
+        }
+        // Empty changes don't tell what to update, so the item is bound as usual
+        if (fields == 0 || (fields & ~mPartialBindersMask) != 0) {
+            return false;
+        }
+
+        while (fields != 0) {
+            final int field = Integer.numberOfTrailingZeros(fields);
+            fields &= fields - 1;
+            partialBinders[field].onBindField(holder, item, position);
+        }
+        return true;
     }
 
     /**
@@ -214,4 +540,28 @@ public abstract class Adapter<E, VH extends RecyclerView.ViewHolder>
         onBindViewHolder(holder, item, position);
     }
 
+    private static class BindingObservable extends CopyOnWriteObservable<BindingObserver> {
+
+        BindingObservable() {
+            super(new BindingObserver[0]);
+        }
+
+        void notifyBound(@NonNull final RecyclerView.ViewHolder viewHolder) {
+            final BindingObserver[] observers = getObservers();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                final BindingObserver observer = observers[i];
+                observer.onBound(viewHolder);
+            }
+        }
+
+        void notifyPositionsChanged() {
+            final BindingObserver[] observers = getObservers();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                final BindingObserver observer = observers[i];
+                observer.onPositionsChanged();
+            }
+        }
+
+    }
+
 }
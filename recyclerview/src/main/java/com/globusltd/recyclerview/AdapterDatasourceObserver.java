@@ -30,9 +30,9 @@ import com.globusltd.recyclerview.datasource.DatasourceObserver;
 public class AdapterDatasourceObserver extends DatasourceObserver {
 
     @NonNull
-    private final RecyclerView.Adapter<?> mAdapter;
+    private final Adapter<?, ?> mAdapter;
 
-    AdapterDatasourceObserver(@NonNull final RecyclerView.Adapter<?> adapter) {
+    AdapterDatasourceObserver(@NonNull final Adapter<?, ?> adapter) {
         super();
         mAdapter = adapter;
     }
@@ -42,6 +42,11 @@ public class AdapterDatasourceObserver extends DatasourceObserver {
      */
     @Override
     public void onChanged() {
+        mAdapter.resetPrefetch();
+        final BindModelCache<?, ?> bindModelCache = mAdapter.getBindModelCache();
+        if (bindModelCache != null) {
+            bindModelCache.onChanged();
+        }
         mAdapter.notifyDataSetChanged();
     }
 
@@ -52,6 +57,11 @@ public class AdapterDatasourceObserver extends DatasourceObserver {
     public void onItemRangeChanged(@IntRange(from = 0) final int positionStart,
                                    @IntRange(from = 0) final int itemCount,
                                    @Nullable final Object payload) {
+        mAdapter.resetPrefetch();
+        final BindModelCache<?, ?> bindModelCache = mAdapter.getBindModelCache();
+        if (bindModelCache != null) {
+            bindModelCache.onItemRangeChanged(positionStart, itemCount);
+        }
         mAdapter.notifyItemRangeChanged(positionStart, itemCount, payload);
     }
 
@@ -61,7 +71,13 @@ public class AdapterDatasourceObserver extends DatasourceObserver {
     @Override
     public void onItemRangeInserted(@IntRange(from = 0) final int positionStart,
                                     @IntRange(from = 0) final int itemCount) {
+        mAdapter.resetPrefetch();
+        final BindModelCache<?, ?> bindModelCache = mAdapter.getBindModelCache();
+        if (bindModelCache != null) {
+            bindModelCache.onItemRangeInserted(positionStart, itemCount);
+        }
         mAdapter.notifyItemRangeInserted(positionStart, itemCount);
+        mAdapter.notifyPositionsChanged();
     }
 
     /**
@@ -70,7 +86,13 @@ public class AdapterDatasourceObserver extends DatasourceObserver {
     @Override
     public void onItemRangeRemoved(@IntRange(from = 0) final int positionStart,
                                    @IntRange(from = 0) final int itemCount) {
+        mAdapter.resetPrefetch();
+        final BindModelCache<?, ?> bindModelCache = mAdapter.getBindModelCache();
+        if (bindModelCache != null) {
+            bindModelCache.onItemRangeRemoved(positionStart, itemCount);
+        }
         mAdapter.notifyItemRangeRemoved(positionStart, itemCount);
+        mAdapter.notifyPositionsChanged();
     }
 
     /**
@@ -79,7 +101,13 @@ public class AdapterDatasourceObserver extends DatasourceObserver {
     @Override
     public void onItemMoved(@IntRange(from = 0) final int fromPosition,
                             @IntRange(from = 0) final int toPosition) {
+        mAdapter.resetPrefetch();
+        final BindModelCache<?, ?> bindModelCache = mAdapter.getBindModelCache();
+        if (bindModelCache != null) {
+            bindModelCache.onItemMoved(fromPosition, toPosition);
+        }
         mAdapter.notifyItemMoved(fromPosition, toPosition);
+        mAdapter.notifyPositionsChanged();
     }
     
 }
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.util.SparseArray;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache of immutable bind models that are prepared ahead of the scroll on the background thread.
+ * <p>
+ * Set it to the adapter with {@link Adapter#setBindModelCache(BindModelCache)} and models of
+ * items that are about to appear on the screen are prepared on the {@link Executor}, so derived
+ * data like formatted dates and spans is not computed on the main thread during the bind.
+ * Bound view holders pick models up with {@link #get(int, Object)}.
+ * <p>
+ * Models are kept per adapter position and are moved along with items when the adapter
+ * dispatches inserted, removed and moved ranges. Changed ranges drop their models.
+ * Items waiting to be prepared are queued in buffers that are reused between frames,
+ * the oldest ones are dropped when the queue is full.
+ *
+ * @param <E> Type of elements handled by adapter.
+ * @param <M> Type of bind models.
+ */
+@MainThread
+public class BindModelCache<E, M> {
+
+    private static final int DEFAULT_MAX_MODELS = 100;
+
+    /**
+     * Prepares the bind model of the item.
+     *
+     * @param <E> Type of elements handled by adapter.
+     * @param <M> Type of bind models.
+     */
+    public interface Preparer<E, M> {
+
+        /**
+         * Prepares the bind model of the item. Called from both the main and the worker
+         * threads, so the item should be immutable and the model should not reference views.
+         *
+         * @param item The item of the adapter.
+         * @return The immutable bind model.
+         */
+        @NonNull
+        M prepare(@NonNull final E item);
+
+    }
+
+    @NonNull
+    private final Preparer<? super E, ? extends M> mPreparer;
+
+    @NonNull
+    private final Executor mExecutor;
+
+    @NonNull
+    private final Handler mMainThreadHandler;
+
+    @NonNull
+    private final SparseArray<Entry<M>> mModels;
+
+    @NonNull
+    private final Runnable mPrepareRunnable;
+
+    @NonNull
+    private final AtomicBoolean mPrepareScheduled;
+
+    @NonNull
+    private final Object mPendingLock;
+
+    /**
+     * Positions and items waiting to be prepared, guarded by {@link #mPendingLock}.
+     */
+    @NonNull
+    private final int[] mPendingPositions;
+
+    @NonNull
+    private final Object[] mPendingItems;
+
+    private int mPendingCount;
+
+    private final int mMaxModels;
+
+    /**
+     * Incremented when positions of items are changed, so models
+     * that are being prepared at that moment will be dropped.
+     */
+    private volatile int mGeneration;
+
+    private int mLastPosition;
+
+    private int mHitCount;
+    private int mMissCount;
+
+    public BindModelCache(@NonNull final Preparer<? super E, ? extends M> preparer) {
+        this(preparer, DEFAULT_MAX_MODELS, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param preparer  Prepares bind models of items.
+     * @param maxModels Maximum number of models kept in memory, models farthest
+     *                  from the last bound position are evicted first.
+     * @param executor  The executor to prepare models on.
+     */
+    public BindModelCache(@NonNull final Preparer<? super E, ? extends M> preparer,
+                          @IntRange(from = 1) final int maxModels,
+                          @NonNull final Executor executor) {
+        if (maxModels < 1) {
+            throw new IllegalArgumentException("Max models should be positive");
+        }
+
+        mPreparer = preparer;
+        mMaxModels = maxModels;
+        mExecutor = executor;
+        mMainThreadHandler = new Handler(Looper.getMainLooper());
+        mModels = new SparseArray<>();
+        mPrepareRunnable = new PrepareRunnable();
+        mPrepareScheduled = new AtomicBoolean();
+        mPendingLock = new Object();
+        mPendingPositions = new int[maxModels];
+        mPendingItems = new Object[maxModels];
+    }
+
+    /**
+     * Returns the bind model of the item at the given position. The model is prepared
+     * on the calling thread if it has not been prepared in advance.
+     *
+     * @param position The position of the item within the adapter's data set.
+     * @param item     The item at the given position.
+     * @return The bind model of the item.
+     */
+    @NonNull
+    public M get(@IntRange(from = 0) final int position, @NonNull final E item) {
+        mLastPosition = position;
+        final Entry<M> entry = mModels.get(position);
+        if (entry != null && entry.mItem == item) {
+            mHitCount++;
+            return entry.mModel;
+        }
+
+        mMissCount++;
+        final M model = mPreparer.prepare(item);
+        put(position, item, model);
+        return model;
+    }
+
+    /**
+     * Drops all prepared models, e.g. when the locale has been changed.
+     */
+    public void evictAll() {
+        invalidatePending();
+        mModels.clear();
+    }
+
+    /**
+     * Returns the number of models requested by {@link #get(int, Object)}
+     * that have been prepared in advance.
+     */
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Returns the number of models requested by {@link #get(int, Object)}
+     * that have been prepared on the main thread.
+     */
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Queues preparing models of items that have no models yet.
+     *
+     * @param firstPosition Position of the first item.
+     * @param step          1 if positions of items ascend, -1 if they descend.
+     * @param items         Items that are about to appear on the screen, closest first.
+     */
+    void prefetch(final int firstPosition, final int step, @NonNull final List<? extends E> items) {
+        boolean queued = false;
+        synchronized (mPendingLock) {
+            final int size = items.size();
+            for (int i = 0; i < size; i++) {
+                final int position = firstPosition + i * step;
+                final Object item = items.get(i);
+                final Entry<M> entry = mModels.get(position);
+                if (entry == null || entry.mItem != item) {
+                    queue(position, item);
+                    queued = true;
+                }
+            }
+        }
+
+        if (queued && mPrepareScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(mPrepareRunnable);
+        }
+    }
+
+    /**
+     * Adds the item to the pending queue, dropping the oldest item if the queue is full.
+     */
+    private void queue(final int position, @NonNull final Object item) {
+        if (mPendingCount == mPendingItems.length) {
+            mPendingCount--;
+            System.arraycopy(mPendingPositions, 1, mPendingPositions, 0, mPendingCount);
+            System.arraycopy(mPendingItems, 1, mPendingItems, 0, mPendingCount);
+        }
+        mPendingPositions[mPendingCount] = position;
+        mPendingItems[mPendingCount] = item;
+        mPendingCount++;
+    }
+
+    /**
+     * Drops pending items and models that are being prepared.
+     */
+    private void invalidatePending() {
+        synchronized (mPendingLock) {
+            mGeneration++;
+            Arrays.fill(mPendingItems, 0, mPendingCount, null);
+            mPendingCount = 0;
+        }
+    }
+
+    void onChanged() {
+        evictAll();
+    }
+
+    void onItemRangeChanged(final int positionStart, final int itemCount) {
+        invalidatePending();
+        for (int i = mModels.size() - 1; i >= 0; i--) {
+            final int position = mModels.keyAt(i);
+            if (position >= positionStart && position < positionStart + itemCount) {
+                mModels.removeAt(i);
+            }
+        }
+    }
+
+    void onItemRangeInserted(final int positionStart, final int itemCount) {
+        invalidatePending();
+        shift(positionStart, itemCount);
+    }
+
+    void onItemRangeRemoved(final int positionStart, final int itemCount) {
+        onItemRangeChanged(positionStart, itemCount);
+        shift(positionStart + itemCount, -itemCount);
+    }
+
+    void onItemMoved(final int fromPosition, final int toPosition) {
+        invalidatePending();
+        final Entry<M> entry = mModels.get(fromPosition);
+        mModels.remove(fromPosition);
+        shift(fromPosition + 1, -1);
+        shift(toPosition, 1);
+        if (entry != null) {
+            mModels.put(toPosition, entry);
+        }
+    }
+
+    /**
+     * Moves models at positions starting from the given one by the offset.
+     */
+    private void shift(final int positionStart, final int offset) {
+        final int size = mModels.size();
+        int index = 0;
+        while (index < size && mModels.keyAt(index) < positionStart) {
+            index++;
+        }
+        if (index == size) {
+            return;
+        }
+
+        // Shifted models are removed first, so they never replace each other
+        final int count = size - index;
+        final int[] positions = new int[count];
+        final Object[] entries = new Object[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = mModels.keyAt(index + i) + offset;
+            entries[i] = mModels.valueAt(index + i);
+        }
+        for (int i = size - 1; i >= index; i--) {
+            mModels.removeAt(i);
+        }
+        for (int i = 0; i < count; i++) {
+            @SuppressWarnings("unchecked")
+            final Entry<M> entry = (Entry<M>) entries[i];
+            mModels.put(positions[i], entry);
+        }
+    }
+
+    private void put(final int position, @NonNull final Object item, @NonNull final M model) {
+        mModels.put(position, new Entry<>(item, model));
+        if (mModels.size() > mMaxModels) {
+            // Evict the model that is the farthest from the visible window
+            int farthestIndex = 0;
+            int farthestDistance = -1;
+            for (int i = mModels.size() - 1; i >= 0; i--) {
+                final int distance = Math.abs(mModels.keyAt(i) - mLastPosition);
+                if (distance > farthestDistance) {
+                    farthestIndex = i;
+                    farthestDistance = distance;
+                }
+            }
+            mModels.removeAt(farthestIndex);
+        }
+    }
+
+    private void onPrepared(@NonNull final Request request, @NonNull final Object[] models,
+                            final int count) {
+        if (request.mGeneration != mGeneration) {
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            final int position = request.mPositions[i];
+            if (mModels.get(position) == null) {
+                @SuppressWarnings("unchecked")
+                final M model = (M) models[i];
+                put(position, request.mItems[i], model);
+            }
+        }
+    }
+
+    private static class Entry<M> {
+
+        @NonNull
+        final Object mItem;
+
+        @NonNull
+        final M mModel;
+
+        Entry(@NonNull final Object item, @NonNull final M model) {
+            mItem = item;
+            mModel = model;
+        }
+
+    }
+
+    private static class Request {
+
+        final int mGeneration;
+
+        @NonNull
+        final int[] mPositions;
+
+        @NonNull
+        final Object[] mItems;
+
+        final int mCount;
+
+        Request(final int generation, @NonNull final int[] positions,
+                @NonNull final Object[] items, final int count) {
+            mGeneration = generation;
+            mPositions = positions;
+            mItems = items;
+            mCount = count;
+        }
+
+    }
+
+    private class PrepareRunnable implements Runnable {
+
+        @WorkerThread
+        @Override
+        public void run() {
+            do {
+                final Request request = takePending();
+                if (request != null) {
+                    prepare(request);
+                }
+                mPrepareScheduled.set(false);
+
+                // Prepare again if new items have been queued while we were busy
+            } while (hasPending() && mPrepareScheduled.compareAndSet(false, true));
+        }
+
+        @Nullable
+        private Request takePending() {
+            synchronized (mPendingLock) {
+                final int count = mPendingCount;
+                if (count == 0) {
+                    return null;
+                }
+
+                final Request request = new Request(mGeneration,
+                        Arrays.copyOf(mPendingPositions, count),
+                        Arrays.copyOf(mPendingItems, count), count);
+                Arrays.fill(mPendingItems, 0, count, null);
+                mPendingCount = 0;
+                return request;
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (mPendingLock) {
+                return (mPendingCount > 0);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void prepare(@NonNull final Request request) {
+            final Object[] models = new Object[request.mCount];
+            int count = 0;
+            while (count < request.mCount && request.mGeneration == mGeneration) {
+                models[count] = mPreparer.prepare((E) request.mItems[count]);
+                count++;
+            }
+
+            // Positions may still be changed before the models are delivered,
+            // so the generation is checked again on the main thread
+            if (count > 0 && request.mGeneration == mGeneration) {
+                final int preparedCount = count;
+                mMainThreadHandler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        onPrepared(request, models, preparedCount);
+                    }
+
+                });
+            }
+        }
+
+    }
+
+}
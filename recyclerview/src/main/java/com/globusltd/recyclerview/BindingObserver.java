@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Interface to observe binding events of the {@link Adapter}.
+ *
+ * @see Adapter#registerBindingObserver(BindingObserver)
+ */
+@MainThread
+public interface BindingObserver {
+
+    /**
+     * Called when a view holder has been bound or rebound to the data item.
+     *
+     * @param viewHolder A view holder that has been bound.
+     */
+    void onBound(@NonNull final RecyclerView.ViewHolder viewHolder);
+
+    /**
+     * Called when items have been inserted, removed or moved, so adapter positions
+     * of the bound view holders may have been changed. Adapter positions returned by
+     * {@link RecyclerView.ViewHolder#getAdapterPosition()} are already updated
+     * at the moment of this call.
+     */
+    void onPositionsChanged();
+
+}
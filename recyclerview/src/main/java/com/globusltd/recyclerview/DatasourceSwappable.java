@@ -16,9 +16,13 @@
 package com.globusltd.recyclerview;
 
 import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.globusltd.recyclerview.datasource.Datasource;
 
+import java.util.concurrent.Executor;
+
 /**
  * Interface describes component that supports replacing internal {@link Datasource}
  * without interruption to the system.
@@ -27,4 +31,49 @@ import com.globusltd.recyclerview.datasource.Datasource;
  */
 @MainThread
 public interface DatasourceSwappable<E> extends Swappable<Datasource<? extends E>> {
+
+    /**
+     * Performs swapping the internal datasource in the background. Differences between
+     * the current and the new datasource are calculated on the diff {@link Executor}
+     * and are applied on the main thread. Any pending swap that has not been applied yet
+     * is cancelled by the newer one.
+     * <p>
+     * Both datasources are read from the worker thread while the diff is being calculated,
+     * so they should not be modified until the swap is completed. An exception thrown
+     * while calculating the diff is rethrown on the main thread, the datasource is not swapped.
+     *
+     * @param datasource The new datasource that should replace the old one.
+     * @param callback   Optional callback to be notified when swap is completed or cancelled.
+     */
+    void swapAsync(@NonNull final Datasource<? extends E> datasource,
+                   @Nullable final SwapCallback<E> callback);
+
+    /**
+     * Callback to be invoked on the main thread when asynchronous swap is completed.
+     *
+     * @param <E> Type of elements handled by datasource.
+     */
+    @MainThread
+    interface SwapCallback<E> {
+
+        /**
+         * Called when the new datasource has replaced the previous one and
+         * all changes have been dispatched to the observers.
+         *
+         * @param oldDatasource The previous datasource.
+         * @param newDatasource The current datasource.
+         */
+        void onSwapped(@NonNull final Datasource<? extends E> oldDatasource,
+                       @NonNull final Datasource<? extends E> newDatasource);
+
+        /**
+         * Called when the swap has been cancelled by the newer one and datasource
+         * has never been applied.
+         *
+         * @param datasource The datasource that has not been applied.
+         */
+        void onSwapCancelled(@NonNull final Datasource<? extends E> datasource);
+
+    }
+
 }
\ No newline at end of file
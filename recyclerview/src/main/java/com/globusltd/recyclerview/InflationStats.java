@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.util.SparseArray;
+
+/**
+ * Statistics of view holder creation times per view type.
+ *
+ * @see Adapter#getInflationStats()
+ */
+@MainThread
+public final class InflationStats {
+
+    @NonNull
+    private final SparseArray<Record> mRecords;
+
+    InflationStats() {
+        mRecords = new SparseArray<>();
+    }
+
+    void record(final int viewType, final long timeNanos) {
+        Record record = mRecords.get(viewType);
+        if (record == null) {
+            record = new Record();
+            mRecords.put(viewType, record);
+        }
+        record.mCount++;
+        record.mTotalTimeNanos += timeNanos;
+        record.mMaxTimeNanos = Math.max(record.mMaxTimeNanos, timeNanos);
+    }
+
+    /**
+     * Returns the number of view holders of the given type that have been created.
+     */
+    public int getCount(final int viewType) {
+        final Record record = mRecords.get(viewType);
+        return (record != null ? record.mCount : 0);
+    }
+
+    /**
+     * Returns the total time spent creating view holders of the given type, in nanoseconds.
+     */
+    public long getTotalTimeNanos(final int viewType) {
+        final Record record = mRecords.get(viewType);
+        return (record != null ? record.mTotalTimeNanos : 0L);
+    }
+
+    /**
+     * Returns the average time of creating a view holder of the given type, in nanoseconds.
+     */
+    public long getAverageTimeNanos(final int viewType) {
+        final Record record = mRecords.get(viewType);
+        return (record != null ? record.mTotalTimeNanos / record.mCount : 0L);
+    }
+
+    /**
+     * Returns the longest time of creating a view holder of the given type, in nanoseconds.
+     */
+    public long getMaxTimeNanos(final int viewType) {
+        final Record record = mRecords.get(viewType);
+        return (record != null ? record.mMaxTimeNanos : 0L);
+    }
+
+    /**
+     * Returns view types that have been created at least once.
+     */
+    @NonNull
+    public int[] getViewTypes() {
+        final int size = mRecords.size();
+        final int[] viewTypes = new int[size];
+        for (int i = 0; i < size; i++) {
+            viewTypes[i] = mRecords.keyAt(i);
+        }
+        return viewTypes;
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public void reset() {
+        mRecords.clear();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("InflationStats{");
+        for (int i = 0; i < mRecords.size(); i++) {
+            final Record record = mRecords.valueAt(i);
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(mRecords.keyAt(i))
+                    .append("=[count=").append(record.mCount)
+                    .append(", avg=").append(record.mTotalTimeNanos / record.mCount / 1000L).append("us")
+                    .append(", max=").append(record.mMaxTimeNanos / 1000L).append("us]");
+        }
+        return sb.append('}').toString();
+    }
+
+    private static class Record {
+
+        int mCount;
+        long mTotalTimeNanos;
+        long mMaxTimeNanos;
+
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Updates views of the view holder that display a single field of the item.
+ *
+ * @param <E>  Type of elements handled by adapter.
+ * @param <VH> Type of view holders.
+ * @see Adapter#registerPartialBinder(int, PartialBinder)
+ * @see com.globusltd.recyclerview.diff.FieldChanges
+ */
+@MainThread
+public interface PartialBinder<E, VH extends RecyclerView.ViewHolder> {
+
+    /**
+     * Called instead of the full bind when the field has been changed.
+     *
+     * @param holder   The ViewHolder that is bound to the old data of the item.
+     * @param item     The item at the given position in the data set.
+     * @param position The position of the item within the adapter's data set.
+     */
+    void onBindField(@NonNull final VH holder, @NonNull final E item, final int position);
+
+}
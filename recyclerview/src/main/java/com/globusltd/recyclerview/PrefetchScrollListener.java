@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Reports positions that are about to appear on the screen in the scroll direction.
+ * The faster the RecyclerView is scrolled, the more positions are reported.
+ */
+class PrefetchScrollListener extends RecyclerView.OnScrollListener {
+
+    /**
+     * Number of frames the scroll is predicted for at the current velocity.
+     */
+    private static final int PREDICTED_FRAMES = 8;
+
+    @NonNull
+    private final Adapter<?, ?> mAdapter;
+
+    PrefetchScrollListener(@NonNull final Adapter<?, ?> adapter) {
+        mAdapter = adapter;
+    }
+
+    @Override
+    public void onScrolled(final RecyclerView recyclerView, final int dx, final int dy) {
+        final int prefetchDistance = mAdapter.getPrefetchDistance();
+        final int childCount = recyclerView.getChildCount();
+        if ((dx == 0 && dy == 0) || prefetchDistance == 0 || childCount == 0) {
+            return;
+        }
+
+        int firstPosition = Integer.MAX_VALUE;
+        int lastPosition = RecyclerView.NO_POSITION;
+        for (int i = 0; i < childCount; i++) {
+            final View child = recyclerView.getChildAt(i);
+            final int position = recyclerView.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION) {
+                firstPosition = Math.min(firstPosition, position);
+                lastPosition = Math.max(lastPosition, position);
+            }
+        }
+        if (lastPosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        final boolean forward = (dy > 0 || (dy == 0 && dx > 0));
+        final int distance = prefetchDistance + getScrolledItems(recyclerView, dx, dy, childCount);
+        if (forward) {
+            final int positionStart = lastPosition + 1;
+            final int itemCount = Math.min(distance, mAdapter.getItemCount() - positionStart);
+            mAdapter.onPrefetch(positionStart, itemCount, true);
+        } else {
+            final int positionStart = Math.max(firstPosition - distance, 0);
+            mAdapter.onPrefetch(positionStart, firstPosition - positionStart, false);
+        }
+    }
+
+    /**
+     * Estimates how many items will be scrolled within the predicted frames.
+     */
+    private static int getScrolledItems(@NonNull final RecyclerView recyclerView,
+                                        final int dx, final int dy, final int childCount) {
+        final int delta = Math.abs(dy != 0 ? dy : dx);
+        final int extent = (dy != 0 ? recyclerView.getHeight() : recyclerView.getWidth());
+        if (extent <= 0) {
+            return 0;
+        }
+        return (int) ((long) delta * childCount * PREDICTED_FRAMES / extent);
+    }
+
+}
@@ -19,29 +19,81 @@ import android.graphics.Rect;
 import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
 import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
 import android.view.View;
 
-import com.globusltd.recyclerview.util.Observable;
+import com.globusltd.recyclerview.util.CopyOnWriteObservable;
+
+import java.util.Arrays;
 
 /**
  * {@link ViewHolderTracker} provides view holder attach/detach events to
  * the registered {@link ViewHolderObserver} objects.
+ * <p>
+ * When RecyclerView's adapter extends {@link Adapter}, change and position change events
+ * are provided by the adapter's {@link BindingObserver}, so observers are notified only when
+ * a view holder is actually rebound or its adapter position is actually changed.
+ * For other adapters these events are detected on every layout pass.
  */
 @MainThread
 public class ViewHolderTracker extends RecyclerViewOwner {
 
+    private static final int DEFAULT_CAPACITY = 16;
+
     @NonNull
     private final ViewHolderObservable mViewHolderObservable;
 
+    @NonNull
+    private final BindingObserver mBindingObserver;
+
     @Nullable
     private OnChildAttachStateChangeListener mOnChildAttachStateChangeListener;
 
     @Nullable
     private RecyclerView.ItemDecoration mItemDecoration;
 
+    @Nullable
+    private RecyclerView.Adapter<?> mAdapter;
+
+    /**
+     * Attached view holders and their last known adapter positions.
+     */
+    @NonNull
+    private RecyclerView.ViewHolder[] mAttachedViewHolders;
+
+    @NonNull
+    private int[] mAttachedPositions;
+
+    @NonNull
+    private long[] mAttachedItemIds;
+
+    private int mAttachedCount;
+
+    /**
+     * Attached view holders indexed by their item ids.
+     */
+    @NonNull
+    private final LongSparseArray<RecyclerView.ViewHolder> mAttachedByItemId;
+
+    /**
+     * Attached view holders indexed by their last known adapter positions.
+     */
+    @NonNull
+    private final SparseArray<RecyclerView.ViewHolder> mAttachedByPosition;
+
+    private long mDispatchedCallbackCount;
+    private long mAvoidedCallbackCount;
+
     public ViewHolderTracker() {
         mViewHolderObservable = new ViewHolderObservable();
+        mBindingObserver = new BindingObserverImpl();
+        mAttachedViewHolders = new RecyclerView.ViewHolder[DEFAULT_CAPACITY];
+        mAttachedPositions = new int[DEFAULT_CAPACITY];
+        mAttachedItemIds = new long[DEFAULT_CAPACITY];
+        mAttachedByItemId = new LongSparseArray<>(DEFAULT_CAPACITY);
+        mAttachedByPosition = new SparseArray<>(DEFAULT_CAPACITY);
     }
 
     /**
@@ -63,17 +115,94 @@ public class ViewHolderTracker extends RecyclerViewOwner {
         mViewHolderObservable.unregisterObserver(viewHolderObserver);
     }
 
+    /**
+     * Returns the attached view holder that represents the item with the given id.
+     * Unlike {@link RecyclerView#findViewHolderForItemId(long)} it doesn't scan
+     * RecyclerView's children.
+     *
+     * @param itemId The stable id of the item.
+     * @return The attached view holder or null if there is no such view holder
+     * or the adapter doesn't have stable ids.
+     */
+    @Nullable
+    public RecyclerView.ViewHolder findViewHolderForItemId(final long itemId) {
+        return (itemId != RecyclerView.NO_ID ? mAttachedByItemId.get(itemId) : null);
+    }
+
+    /**
+     * Returns the attached view holder that represents the item at the given adapter position.
+     * Unlike {@link RecyclerView#findViewHolderForAdapterPosition(int)} it doesn't scan
+     * RecyclerView's children.
+     *
+     * @param position The adapter position of the item.
+     * @return The attached view holder or null if there is no such view holder.
+     */
+    @Nullable
+    public RecyclerView.ViewHolder findViewHolderForAdapterPosition(final int position) {
+        return (position > RecyclerView.NO_POSITION ? mAttachedByPosition.get(position) : null);
+    }
+
+    /**
+     * Returns the number of attached view holders.
+     */
+    public int getAttachedViewHolderCount() {
+        return mAttachedCount;
+    }
+
+    /**
+     * Returns the attached view holder at the given index, view holders are not ordered.
+     *
+     * @param index The index from 0 to {@link #getAttachedViewHolderCount()} exclusive.
+     * @return The attached view holder.
+     */
+    @NonNull
+    public RecyclerView.ViewHolder getAttachedViewHolder(final int index) {
+        if (index < 0 || index >= mAttachedCount) {
+            throw new IndexOutOfBoundsException("No attached view holder at index=" + index);
+        }
+        return mAttachedViewHolders[index];
+    }
+
+    /**
+     * Returns the number of view holder events that have been dispatched to observers.
+     */
+    public long getDispatchedCallbackCount() {
+        return mDispatchedCallbackCount;
+    }
+
+    /**
+     * Returns the number of view holder events that have not been dispatched to observers,
+     * because a view holder has been bound while detached or its adapter position
+     * has not been changed.
+     */
+    public long getAvoidedCallbackCount() {
+        return mAvoidedCallbackCount;
+    }
+
+    /**
+     * Resets counters returned by {@link #getDispatchedCallbackCount()}
+     * and {@link #getAvoidedCallbackCount()}.
+     */
+    public void resetCallbackCounters() {
+        mDispatchedCallbackCount = 0;
+        mAvoidedCallbackCount = 0;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void onAttachedToRecyclerView(@NonNull final RecyclerView recyclerView) {
+        setAdapter(recyclerView.getAdapter());
+        // Item decorations can't be added during layout, so it's added in advance in case
+        // if adapter without binding events is set later. It does nothing while the adapter
+        // provides binding events.
+        mItemDecoration = new ItemDecoration();
+        recyclerView.addItemDecoration(mItemDecoration);
+
         mOnChildAttachStateChangeListener = new OnChildAttachStateChangeListener(recyclerView);
         mOnChildAttachStateChangeListener.onAttachedToRecyclerView();
         recyclerView.addOnChildAttachStateChangeListener(mOnChildAttachStateChangeListener);
-
-        mItemDecoration = new ItemDecoration();
-        recyclerView.addItemDecoration(mItemDecoration);
     }
 
     /**
@@ -90,6 +219,116 @@ public class ViewHolderTracker extends RecyclerViewOwner {
             recyclerView.removeItemDecoration(mItemDecoration);
             mItemDecoration = null;
         }
+        setAdapter(null);
+    }
+
+    /**
+     * Subscribes to binding events of the adapter if it provides them.
+     */
+    private void setAdapter(@Nullable final RecyclerView.Adapter<?> adapter) {
+        if (mAdapter instanceof Adapter) {
+            ((Adapter<?, ?>) mAdapter).unregisterBindingObserver(mBindingObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter instanceof Adapter) {
+            ((Adapter<?, ?>) mAdapter).registerBindingObserver(mBindingObserver);
+        }
+    }
+
+    private int indexOfAttached(@NonNull final RecyclerView.ViewHolder viewHolder) {
+        for (int i = 0; i < mAttachedCount; i++) {
+            if (mAttachedViewHolders[i] == viewHolder) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void addAttached(@NonNull final RecyclerView.ViewHolder viewHolder) {
+        int index = indexOfAttached(viewHolder);
+        if (index < 0) {
+            if (mAttachedCount == mAttachedViewHolders.length) {
+                final int capacity = mAttachedCount << 1;
+                mAttachedViewHolders = Arrays.copyOf(mAttachedViewHolders, capacity);
+                mAttachedPositions = Arrays.copyOf(mAttachedPositions, capacity);
+                mAttachedItemIds = Arrays.copyOf(mAttachedItemIds, capacity);
+            }
+            index = mAttachedCount++;
+            mAttachedViewHolders[index] = viewHolder;
+            mAttachedPositions[index] = RecyclerView.NO_POSITION;
+            mAttachedItemIds[index] = RecyclerView.NO_ID;
+        }
+        updatePosition(index, viewHolder.getAdapterPosition());
+        updateItemId(index);
+    }
+
+    /**
+     * Re-indexes the attached view holder by the given adapter position. Positions of view
+     * holders can be updated in any order, since an index entry is removed only if it's
+     * still owned by the view holder.
+     */
+    private void updatePosition(final int index, final int position) {
+        final RecyclerView.ViewHolder viewHolder = mAttachedViewHolders[index];
+        final int oldPosition = mAttachedPositions[index];
+        if (oldPosition > RecyclerView.NO_POSITION && mAttachedByPosition.get(oldPosition) == viewHolder) {
+            mAttachedByPosition.remove(oldPosition);
+        }
+        mAttachedPositions[index] = position;
+        if (position > RecyclerView.NO_POSITION) {
+            mAttachedByPosition.put(position, viewHolder);
+        }
+    }
+
+    /**
+     * Re-indexes the attached view holder by its current item id.
+     */
+    private void updateItemId(final int index) {
+        final RecyclerView.ViewHolder viewHolder = mAttachedViewHolders[index];
+        final long itemId = viewHolder.getItemId();
+        final long oldItemId = mAttachedItemIds[index];
+        if (itemId == oldItemId) {
+            return;
+        }
+
+        if (oldItemId != RecyclerView.NO_ID && mAttachedByItemId.get(oldItemId) == viewHolder) {
+            mAttachedByItemId.remove(oldItemId);
+        }
+        mAttachedItemIds[index] = itemId;
+        if (itemId != RecyclerView.NO_ID) {
+            mAttachedByItemId.put(itemId, viewHolder);
+        }
+    }
+
+    private void removeAttached(@NonNull final RecyclerView.ViewHolder viewHolder) {
+        final int index = indexOfAttached(viewHolder);
+        if (index >= 0) {
+            final long itemId = mAttachedItemIds[index];
+            if (itemId != RecyclerView.NO_ID && mAttachedByItemId.get(itemId) == viewHolder) {
+                mAttachedByItemId.remove(itemId);
+            }
+            final int position = mAttachedPositions[index];
+            if (position > RecyclerView.NO_POSITION && mAttachedByPosition.get(position) == viewHolder) {
+                mAttachedByPosition.remove(position);
+            }
+
+            final int last = --mAttachedCount;
+            mAttachedViewHolders[index] = mAttachedViewHolders[last];
+            mAttachedPositions[index] = mAttachedPositions[last];
+            mAttachedItemIds[index] = mAttachedItemIds[last];
+            mAttachedViewHolders[last] = null;
+        }
+    }
+
+    private void dispatchAttached(@NonNull final RecyclerView.ViewHolder viewHolder) {
+        addAttached(viewHolder);
+        mDispatchedCallbackCount++;
+        mViewHolderObservable.notifyAttached(viewHolder);
+    }
+
+    private void dispatchDetached(@NonNull final RecyclerView.ViewHolder viewHolder) {
+        removeAttached(viewHolder);
+        mDispatchedCallbackCount++;
+        mViewHolderObservable.notifyDetached(viewHolder);
     }
 
     private class OnChildAttachStateChangeListener implements RecyclerView.OnChildAttachStateChangeListener {
@@ -111,9 +350,15 @@ public class ViewHolderTracker extends RecyclerViewOwner {
 
         @Override
         public void onChildViewAttachedToWindow(final View view) {
+            final RecyclerView.Adapter<?> adapter = mHostView.getAdapter();
+            if (adapter != mAdapter) {
+                // RecyclerView's adapter has been replaced
+                setAdapter(adapter);
+            }
+
             final RecyclerView.ViewHolder viewHolder = mHostView.findContainingViewHolder(view);
             if (viewHolder != null) {
-                mViewHolderObservable.notifyAttached(viewHolder);
+                dispatchAttached(viewHolder);
             }
         }
 
@@ -121,7 +366,7 @@ public class ViewHolderTracker extends RecyclerViewOwner {
         public void onChildViewDetachedFromWindow(final View view) {
             final RecyclerView.ViewHolder viewHolder = mHostView.findContainingViewHolder(view);
             if (viewHolder != null) {
-                mViewHolderObservable.notifyDetached(viewHolder);
+                dispatchDetached(viewHolder);
             }
         }
 
@@ -129,7 +374,42 @@ public class ViewHolderTracker extends RecyclerViewOwner {
             final int childCount = mHostView.getChildCount();
             for (int index = 0; index < childCount; index++) {
                 final View child = mHostView.getChildAt(index);
-                onChildViewAttachedToWindow(child);
+                onChildViewDetachedFromWindow(child);
+            }
+        }
+
+    }
+
+    private class BindingObserverImpl implements BindingObserver {
+
+        @Override
+        public void onBound(@NonNull final RecyclerView.ViewHolder viewHolder) {
+            final int index = indexOfAttached(viewHolder);
+            if (index >= 0) {
+                updatePosition(index, viewHolder.getAdapterPosition());
+                updateItemId(index);
+                mDispatchedCallbackCount++;
+                mViewHolderObservable.notifyChanged(viewHolder);
+            } else {
+                // Observers will be notified when view holder is attached
+                mAvoidedCallbackCount++;
+            }
+        }
+
+        @Override
+        public void onPositionsChanged() {
+            for (int i = 0; i < mAttachedCount; i++) {
+                final RecyclerView.ViewHolder viewHolder = mAttachedViewHolders[i];
+                final int position = viewHolder.getAdapterPosition();
+                if (position != mAttachedPositions[i]) {
+                    updatePosition(i, position);
+                    if (position > RecyclerView.NO_POSITION) {
+                        mDispatchedCallbackCount++;
+                        mViewHolderObservable.notifyPositionChanged(viewHolder);
+                    }
+                } else {
+                    mAvoidedCallbackCount++;
+                }
             }
         }
 
@@ -140,7 +420,12 @@ public class ViewHolderTracker extends RecyclerViewOwner {
         @Override
         public void getItemOffsets(final Rect outRect, final View itemView,
                                    final RecyclerView parent, final RecyclerView.State state) {
-            if (state.isMeasuring()) {
+            final RecyclerView.Adapter<?> adapter = parent.getAdapter();
+            if (adapter != mAdapter) {
+                // RecyclerView's adapter has been replaced
+                setAdapter(adapter);
+            }
+            if (state.isMeasuring() || mAdapter instanceof Adapter) {
                 return;
             }
 
@@ -150,48 +435,61 @@ public class ViewHolderTracker extends RecyclerViewOwner {
             }
 
             final int position = viewHolder.getAdapterPosition();
+            final int index = indexOfAttached(viewHolder);
+            if (index >= 0) {
+                updatePosition(index, position);
+            }
             if (state.isPreLayout()) {
                 final int oldPosition = viewHolder.getOldPosition();
                 if (position > RecyclerView.NO_POSITION && position != oldPosition) {
+                    mDispatchedCallbackCount++;
                     mViewHolderObservable.notifyPositionChanged(viewHolder);
                 }
             } else {
+                if (index >= 0) {
+                    updateItemId(index);
+                }
+                mDispatchedCallbackCount++;
                 mViewHolderObservable.notifyChanged(viewHolder);
             }
         }
 
     }
 
-    private static class ViewHolderObservable extends Observable<ViewHolderObserver> {
+    private static class ViewHolderObservable extends CopyOnWriteObservable<ViewHolderObserver> {
+
+        ViewHolderObservable() {
+            super(new ViewHolderObserver[0]);
+        }
 
         void notifyAttached(@NonNull final RecyclerView.ViewHolder viewHolder) {
-            final int size = mObservers.size();
-            for (int i = size - 1; i >= 0; i--) {
-                final ViewHolderObserver behavior = mObservers.get(i);
+            final ViewHolderObserver[] observers = getObservers();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                final ViewHolderObserver behavior = observers[i];
                 behavior.onAttached(viewHolder);
             }
         }
 
         void notifyPositionChanged(@NonNull final RecyclerView.ViewHolder viewHolder) {
-            final int size = mObservers.size();
-            for (int i = size - 1; i >= 0; i--) {
-                final ViewHolderObserver behavior = mObservers.get(i);
+            final ViewHolderObserver[] observers = getObservers();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                final ViewHolderObserver behavior = observers[i];
                 behavior.onPositionChanged(viewHolder);
             }
         }
 
         void notifyChanged(@NonNull final RecyclerView.ViewHolder viewHolder) {
-            final int size = mObservers.size();
-            for (int i = size - 1; i >= 0; i--) {
-                final ViewHolderObserver behavior = mObservers.get(i);
+            final ViewHolderObserver[] observers = getObservers();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                final ViewHolderObserver behavior = observers[i];
                 behavior.onChanged(viewHolder);
             }
         }
 
         void notifyDetached(@NonNull final RecyclerView.ViewHolder viewHolder) {
-            final int size = mObservers.size();
-            for (int i = size - 1; i >= 0; i--) {
-                final ViewHolderObserver behavior = mObservers.get(i);
+            final ViewHolderObserver[] observers = getObservers();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                final ViewHolderObserver behavior = observers[i];
                 behavior.onDetached(viewHolder);
             }
         }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Creates view holders in advance while the main thread is idle and puts them into
+ * the {@link RecyclerView.RecycledViewPool}, so the first fling doesn't stutter because
+ * of inflating a view holder of every view type.
+ * <p>
+ * The pool can be shared between RecyclerViews with {@link RecyclerView#setRecycledViewPool(RecyclerView.RecycledViewPool)},
+ * e.g. for lists in different tabs, as long as their adapters use the same view types
+ * for the same views. Creation times are recorded by {@link Adapter#getInflationStats()}.
+ * <p>
+ * The pool's capacity for a view type is raised when more view holders are warmed up at once
+ * than it can keep, it's never lowered. The pool doesn't expose capacities, so set them with
+ * {@link #setMaxRecycledViews(int, int)} instead of the pool to let them be taken into account.
+ * View holders that have not been created yet are dropped when their parent is detached
+ * from the window, so the warm-up doesn't keep the adapter and the parent.
+ * <pre>
+ *     final ViewHolderWarmUp warmUp = new ViewHolderWarmUp(sharedPool);
+ *     warmUp.warmUp(adapter, recyclerView, MyAdapter.TYPE_HEADER, 2);
+ *     warmUp.warmUp(adapter, recyclerView, MyAdapter.TYPE_ITEM, 10);
+ * </pre>
+ */
+@MainThread
+public class ViewHolderWarmUp {
+
+    /**
+     * Time the main thread is allowed to spend creating view holders in a single idle pass.
+     */
+    private static final long IDLE_TIME_BUDGET_NANOS = 4000000L;
+
+    /**
+     * {@link RecyclerView.RecycledViewPool} keeps this number of view holders by default.
+     */
+    private static final int DEFAULT_MAX_SCRAP = 5;
+
+    @NonNull
+    private final RecyclerView.RecycledViewPool mRecycledViewPool;
+
+    @NonNull
+    private final Queue<Task> mTasks;
+
+    /**
+     * Known capacities of the pool per view type.
+     */
+    @NonNull
+    private final SparseIntArray mMaxRecycledViews;
+
+    /**
+     * The largest number of view holders requested to be warmed up at once per view type.
+     */
+    @NonNull
+    private final SparseIntArray mWarmUpCounts;
+
+    @NonNull
+    private final MessageQueue.IdleHandler mIdleHandler;
+
+    @NonNull
+    private final Handler mHandler;
+
+    @NonNull
+    private final Runnable mWakeUpRunnable;
+
+    private boolean mIdleHandlerAdded;
+
+    /**
+     * @param recycledViewPool The pool to put created view holders into.
+     */
+    public ViewHolderWarmUp(@NonNull final RecyclerView.RecycledViewPool recycledViewPool) {
+        mRecycledViewPool = recycledViewPool;
+        mTasks = new ArrayDeque<>();
+        mMaxRecycledViews = new SparseIntArray();
+        mWarmUpCounts = new SparseIntArray();
+        mIdleHandler = new IdleHandlerImpl();
+        mHandler = new Handler(Looper.getMainLooper());
+        mWakeUpRunnable = new Runnable() {
+
+            @Override
+            public void run() {
+                // Do nothing, the message wakes up the queue to run the idle handler again
+            }
+
+        };
+    }
+
+    /**
+     * Sets the maximum number of view holders of the given type the pool keeps.
+     *
+     * @param viewType The view type of view holders.
+     * @param max      The maximum number of view holders.
+     * @see RecyclerView.RecycledViewPool#setMaxRecycledViews(int, int)
+     */
+    public void setMaxRecycledViews(final int viewType, @IntRange(from = 0) final int max) {
+        mMaxRecycledViews.put(viewType, max);
+        mRecycledViewPool.setMaxRecycledViews(viewType, max);
+    }
+
+    /**
+     * Schedules creating view holders of the given type while the main thread is idle.
+     * If the pool can't keep the given number of view holders of that type,
+     * its capacity is raised.
+     *
+     * @param adapter  The adapter to create view holders with.
+     * @param parent   The view group view holders will be attached to, usually the RecyclerView.
+     * @param viewType The view type of view holders.
+     * @param count    Number of view holders to create.
+     */
+    public void warmUp(@NonNull final Adapter<?, ?> adapter, @NonNull final ViewGroup parent,
+                       final int viewType, @IntRange(from = 0) final int count) {
+        if (count <= 0) {
+            return;
+        }
+
+        // The largest count is kept rather than the sum, since view holders created
+        // by earlier calls may have been taken from the pool already
+        if (count > mWarmUpCounts.get(viewType, 0)) {
+            mWarmUpCounts.put(viewType, count);
+            if (count > mMaxRecycledViews.get(viewType, DEFAULT_MAX_SCRAP)) {
+                setMaxRecycledViews(viewType, count);
+            }
+        }
+
+        final Task task = new Task(adapter, parent, viewType, count);
+        parent.addOnAttachStateChangeListener(task);
+        mTasks.add(task);
+
+        if (!mIdleHandlerAdded) {
+            mIdleHandlerAdded = true;
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+    }
+
+    /**
+     * Cancels creating view holders that have not been created yet.
+     * Already created view holders stay in the pool.
+     */
+    public void cancel() {
+        Task task;
+        while ((task = mTasks.poll()) != null) {
+            task.mParent.removeOnAttachStateChangeListener(task);
+        }
+        if (mIdleHandlerAdded) {
+            mIdleHandlerAdded = false;
+            Looper.myQueue().removeIdleHandler(mIdleHandler);
+            mHandler.removeCallbacks(mWakeUpRunnable);
+        }
+    }
+
+    /**
+     * Returns true if there are view holders that have not been created yet.
+     */
+    public boolean isWarmingUp() {
+        return !mTasks.isEmpty();
+    }
+
+    /**
+     * Creates view holders until the time budget is exceeded.
+     *
+     * @return true if there are more view holders to create.
+     */
+    private boolean createViewHolders() {
+        final long deadline = System.nanoTime() + IDLE_TIME_BUDGET_NANOS;
+        Task task;
+        while ((task = mTasks.peek()) != null) {
+            final RecyclerView.ViewHolder holder = task.mAdapter.createViewHolder(task.mParent, task.mViewType);
+            mRecycledViewPool.putRecycledView(holder);
+            if (--task.mRemainingCount == 0) {
+                mTasks.poll();
+                task.mParent.removeOnAttachStateChangeListener(task);
+            }
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return !mTasks.isEmpty();
+    }
+
+    private class Task implements View.OnAttachStateChangeListener {
+
+        @NonNull
+        final Adapter<?, ?> mAdapter;
+
+        @NonNull
+        final ViewGroup mParent;
+
+        final int mViewType;
+
+        int mRemainingCount;
+
+        Task(@NonNull final Adapter<?, ?> adapter, @NonNull final ViewGroup parent,
+             final int viewType, final int count) {
+            mAdapter = adapter;
+            mParent = parent;
+            mViewType = viewType;
+            mRemainingCount = count;
+        }
+
+        @Override
+        public void onViewAttachedToWindow(final View v) {
+            // Do nothing, view holders are created for the attached parent
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(final View v) {
+            mParent.removeOnAttachStateChangeListener(this);
+            mTasks.remove(this);
+        }
+
+    }
+
+    private class IdleHandlerImpl implements MessageQueue.IdleHandler {
+
+        @Override
+        public boolean queueIdle() {
+            if (createViewHolders()) {
+                // Idle handlers run only when the queue becomes idle, so wake it up
+                mHandler.post(mWakeUpRunnable);
+                return true;
+            }
+
+            mIdleHandlerAdded = false;
+            return false;
+        }
+
+    }
+
+}
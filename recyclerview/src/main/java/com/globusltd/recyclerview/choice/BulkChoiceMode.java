@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.choice;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+
+/**
+ * Interface describes choice mode that changes checked state of many items at once.
+ */
+@MainThread
+public interface BulkChoiceMode extends ChoiceMode {
+
+    /**
+     * Sets the checked state of the specified items. Observers are notified
+     * once for the whole batch.
+     *
+     * @param itemIds The item ids whose checked state is to be changed.
+     * @param checked The new checked state for the items.
+     */
+    void setItemsChecked(@NonNull final long[] itemIds, final boolean checked);
+
+    /**
+     * Inverts the checked state of the specified items. Observers are notified
+     * once for the whole batch.
+     *
+     * @param itemIds The item ids whose checked state is to be inverted.
+     */
+    void invertItemsChecked(@NonNull final long[] itemIds);
+
+}
@@ -18,7 +18,7 @@ package com.globusltd.recyclerview.choice;
 import android.support.annotation.MainThread;
 import android.support.v7.widget.RecyclerView;
 
-import com.globusltd.recyclerview.util.Observable;
+import com.globusltd.recyclerview.util.CopyOnWriteObservable;
 
 /**
  * {@link ChoiceModeObservable} provides methods for registering, unregistering
@@ -26,10 +26,10 @@ import com.globusltd.recyclerview.util.Observable;
  * to the registered {@link ChoiceModeObserver}s.
  */
 @MainThread
-public class ChoiceModeObservable extends Observable<ChoiceModeObserver> {
+public class ChoiceModeObservable extends CopyOnWriteObservable<ChoiceModeObserver> {
     
     public ChoiceModeObservable() {
-        super();
+        super(new ChoiceModeObserver[0]);
     }
     
     /**
@@ -40,9 +40,9 @@ public class ChoiceModeObservable extends Observable<ChoiceModeObserver> {
      * @param fromUser True if the checked state change was initiated by the user.
      */
     public void notifyItemCheckedChanged(final long itemId, final boolean fromUser) {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).onItemCheckedChanged(itemId, fromUser);
+        final ChoiceModeObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].onItemCheckedChanged(itemId, fromUser);
         }
     }
 
@@ -53,9 +53,9 @@ public class ChoiceModeObservable extends Observable<ChoiceModeObserver> {
      * @param fromUser True if the checked state change was initiated by the user.
      */
     public void notifyAllItemsCheckedChanged(final boolean fromUser) {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).notifyAllItemsCheckedChanged(fromUser);
+        final ChoiceModeObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].notifyAllItemsCheckedChanged(fromUser);
         }
     }
 
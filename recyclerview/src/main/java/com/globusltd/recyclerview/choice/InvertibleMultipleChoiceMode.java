@@ -0,0 +1,300 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.choice;
+
+import android.os.Bundle;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.globusltd.collections.LongArrayList;
+import com.globusltd.recyclerview.util.LongHashSet;
+
+/**
+ * {@link ChoiceMode} that allows any number of items to be chosen, including all of them.
+ * <p>
+ * Unlike {@link MultipleChoiceMode}, the selection can be inverted with {@link #selectAll(int)}:
+ * every item is checked then except the explicitly unchecked ones. Only ids of items that
+ * differ from the default state are stored, so checking all items of a huge list and
+ * unchecking a few of them takes memory, time and saved state proportional to the number
+ * of the unchecked items.
+ * <p>
+ * Since ids of all of the items are not known, {@link #getCheckedItemCount()} of the inverted
+ * selection relies on the number of items passed to {@link #selectAll(int)}. Keep it up to date
+ * with {@link #setItemCount(int)} and {@link #onItemsRemoved(long[], int)} while the list changes.
+ */
+public class InvertibleMultipleChoiceMode extends ObservableChoiceMode implements BulkChoiceMode {
+
+    private static final String KEY_INVERTIBLE_CHOICE_MODE = "invertible_choice_mode";
+    private static final String KEY_INVERTED = "inverted";
+    private static final String KEY_TOGGLED_IDS = "toggled_ids";
+    private static final String KEY_ITEM_COUNT = "item_count";
+
+    /**
+     * Multiple choice mode callback.
+     */
+    @Nullable
+    private SimpleChoiceModeListener mChoiceModeListener;
+
+    /**
+     * Ids of items whose checked state differs from the default one: checked ids when
+     * the selection is not inverted and unchecked ids when it's inverted.
+     */
+    @NonNull
+    private final LongHashSet mToggledIds;
+
+    /**
+     * True if items are checked by default.
+     */
+    private boolean mInverted;
+
+    private int mItemCount;
+
+    public InvertibleMultipleChoiceMode() {
+        this(null);
+    }
+
+    public InvertibleMultipleChoiceMode(@Nullable final Bundle savedInstanceState) {
+        super();
+        mToggledIds = new LongHashSet();
+
+        final Bundle state = (savedInstanceState != null ?
+                savedInstanceState.getBundle(KEY_INVERTIBLE_CHOICE_MODE) : null);
+        if (state != null) {
+            final LongArrayList toggledIds = state.getParcelable(KEY_TOGGLED_IDS);
+            if (toggledIds == null) {
+                throw new IllegalArgumentException("Did you put toggled ids to the saved state?");
+            }
+
+            mInverted = state.getBoolean(KEY_INVERTED);
+            mItemCount = state.getInt(KEY_ITEM_COUNT);
+            final int count = toggledIds.size();
+            for (int i = 0; i < count; i++) {
+                mToggledIds.add(toggledIds.get(i));
+            }
+        }
+    }
+
+    /**
+     * Sets multiple choice mode callback. The callback is not called for items
+     * checked or unchecked by {@link #selectAll(int)} and {@link #clearChoices()}.
+     */
+    public void setChoiceModeListener(@Nullable final SimpleChoiceModeListener listener) {
+        mChoiceModeListener = listener;
+    }
+
+    /**
+     * Sets the total number of items, it's used to count checked items when
+     * the selection is inverted. Should be updated when items are inserted
+     * or the datasource is replaced.
+     *
+     * @param itemCount The number of items in the adapter.
+     */
+    public void setItemCount(@IntRange(from = 0) final int itemCount) {
+        mItemCount = itemCount;
+    }
+
+    /**
+     * Forgets the state of the removed items, so items that are not in the list
+     * anymore don't affect the checked item count. Observers are not notified
+     * since there are no views to update.
+     *
+     * @param itemIds   Ids of the removed items.
+     * @param itemCount The number of items in the adapter after the removal.
+     */
+    public void onItemsRemoved(@NonNull final long[] itemIds,
+                               @IntRange(from = 0) final int itemCount) {
+        for (final long itemId : itemIds) {
+            mToggledIds.remove(itemId);
+        }
+        mItemCount = itemCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean requiresStableIds() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean requiresLongpress() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isActivated() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When the selection is inverted, the count is based on the number of items
+     * passed to {@link #selectAll(int)} or {@link #setItemCount(int)}.
+     */
+    @Override
+    public int getCheckedItemCount() {
+        return (mInverted ? Math.max(mItemCount - mToggledIds.size(), 0) : mToggledIds.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isItemChecked(final long itemId) {
+        return (mToggledIds.contains(itemId) != mInverted);
+    }
+
+    /**
+     * Returns true if all items are checked except the ones returned by {@link #getToggledItems()}.
+     */
+    public boolean isInverted() {
+        return mInverted;
+    }
+
+    /**
+     * Returns a new unsorted {@link LongArrayList} of ids of items whose checked state differs from
+     * the default one: checked items if the selection is not inverted, unchecked items otherwise.
+     *
+     * @see #isInverted()
+     */
+    @NonNull
+    public LongArrayList getToggledItems() {
+        final LongArrayList toggledItems = new LongArrayList();
+        for (final long toggledId : mToggledIds.toArray()) {
+            toggledItems.add(toggledId);
+        }
+        return toggledItems;
+    }
+
+    /**
+     * Checks all items without enumerating their ids.
+     *
+     * @param itemCount The number of items in the adapter.
+     */
+    public void selectAll(@IntRange(from = 0) final int itemCount) {
+        mItemCount = itemCount;
+        mInverted = true;
+        mToggledIds.clear();
+        notifyAllItemsCheckedChanged(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearChoices() {
+        mInverted = false;
+        mToggledIds.clear();
+        notifyAllItemsCheckedChanged(false);
+    }
+
+    @Override
+    public void setItemChecked(final long itemId, final boolean checked) {
+        setItemCheckedInternal(itemId, checked, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setItemsChecked(@NonNull final long[] itemIds, final boolean checked) {
+        final boolean toggled = (checked != mInverted);
+        boolean changed = false;
+        for (final long itemId : itemIds) {
+            if (toggled ? mToggledIds.add(itemId) : mToggledIds.remove(itemId)) {
+                changed = true;
+                if (mChoiceModeListener != null) {
+                    mChoiceModeListener.onItemCheckedStateChanged(itemId, checked, false);
+                }
+            }
+        }
+
+        if (changed) {
+            notifyAllItemsCheckedChanged(false);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invertItemsChecked(@NonNull final long[] itemIds) {
+        for (final long itemId : itemIds) {
+            final boolean toggled = !mToggledIds.remove(itemId);
+            if (toggled) {
+                mToggledIds.add(itemId);
+            }
+            if (mChoiceModeListener != null) {
+                mChoiceModeListener.onItemCheckedStateChanged(itemId, toggled != mInverted, false);
+            }
+        }
+
+        if (itemIds.length > 0) {
+            notifyAllItemsCheckedChanged(false);
+        }
+    }
+
+    private void setItemCheckedInternal(final long itemId, final boolean checked,
+                                        final boolean fromUser) {
+        final boolean changed = (checked != mInverted ?
+                mToggledIds.add(itemId) : mToggledIds.remove(itemId));
+        if (!changed) {
+            return;
+        }
+
+        if (mChoiceModeListener != null) {
+            mChoiceModeListener.onItemCheckedStateChanged(itemId, checked, fromUser);
+        }
+        notifyItemCheckedChanged(itemId, fromUser);
+    }
+
+    @Override
+    public boolean onClick(final long itemId) {
+        final boolean checked = !isItemChecked(itemId);
+        setItemCheckedInternal(itemId, checked, true);
+        return false;
+    }
+
+    @Override
+    public boolean onLongClick(final long itemId) {
+        // Consume event when it happens
+        return true;
+    }
+
+    /**
+     * Call this method to retrieve per-instance state before UI component being killed
+     * so that the state can be restored via constructor. Only ids of toggled items are saved.
+     *
+     * @param outState Bundle in which to place your saved state.
+     */
+    public void onSaveInstanceState(@NonNull final Bundle outState) {
+        final Bundle state = new Bundle();
+        state.putBoolean(KEY_INVERTED, mInverted);
+        state.putInt(KEY_ITEM_COUNT, mItemCount);
+        state.putParcelable(KEY_TOGGLED_IDS, getToggledItems());
+        outState.putBundle(KEY_INVERTIBLE_CHOICE_MODE, state);
+    }
+
+}
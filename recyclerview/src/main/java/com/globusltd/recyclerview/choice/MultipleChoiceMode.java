@@ -20,11 +20,12 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.globusltd.collections.LongArrayList;
+import com.globusltd.recyclerview.util.LongHashSet;
 
 /**
  * {@link ChoiceMode} that allows any number of items to be chosen.
  */
-public class MultipleChoiceMode  extends ObservableChoiceMode {
+public class MultipleChoiceMode extends ObservableChoiceMode implements BulkChoiceMode {
 
     private static final String KEY_MULTIPLE_CHOICE_MODE = "multiple_choice_mode";
     private static final String KEY_CHECKED_IDS = "checked_ids";
@@ -40,7 +41,7 @@ public class MultipleChoiceMode  extends ObservableChoiceMode {
      * If there is a value for a given key, the checked state for that ID is true.
      */
     @NonNull
-    private final LongArrayList mCheckedIds;
+    private final LongHashSet mCheckedIds;
 
     public MultipleChoiceMode() {
         this(null);
@@ -48,7 +49,7 @@ public class MultipleChoiceMode  extends ObservableChoiceMode {
 
     public MultipleChoiceMode(@Nullable final Bundle savedInstanceState) {
         super();
-        mCheckedIds = new LongArrayList();
+        mCheckedIds = new LongHashSet();
 
         final Bundle state = (savedInstanceState != null ?
                 savedInstanceState.getBundle(KEY_MULTIPLE_CHOICE_MODE) : null);
@@ -59,7 +60,6 @@ public class MultipleChoiceMode  extends ObservableChoiceMode {
             }
 
             final int count = checkedIdStates.size();
-            mCheckedIds.clear();
             for (int i = 0; i < count; i++) {
                 mCheckedIds.add(checkedIdStates.get(i));
             }
@@ -117,12 +117,50 @@ public class MultipleChoiceMode  extends ObservableChoiceMode {
         setItemCheckedInternal(itemId, checked, false);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setItemsChecked(@NonNull final long[] itemIds, final boolean checked) {
+        boolean changed = false;
+        for (final long itemId : itemIds) {
+            if (checked ? mCheckedIds.add(itemId) : mCheckedIds.remove(itemId)) {
+                changed = true;
+                if (mChoiceModeListener != null) {
+                    mChoiceModeListener.onItemCheckedStateChanged(itemId, checked, false);
+                }
+            }
+        }
+
+        if (changed) {
+            notifyAllItemsCheckedChanged(false);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invertItemsChecked(@NonNull final long[] itemIds) {
+        for (final long itemId : itemIds) {
+            final boolean checked = !mCheckedIds.remove(itemId);
+            if (checked) {
+                mCheckedIds.add(itemId);
+            }
+            if (mChoiceModeListener != null) {
+                mChoiceModeListener.onItemCheckedStateChanged(itemId, checked, false);
+            }
+        }
+
+        if (itemIds.length > 0) {
+            notifyAllItemsCheckedChanged(false);
+        }
+    }
+
     private void setItemCheckedInternal(final long itemId, final boolean checked,
                                         final boolean fromUser) {
-        final int indexOf = mCheckedIds.indexOf(itemId);
-        if (indexOf > -1) {
-            mCheckedIds.removeAt(indexOf);
-        }
+        // Re-add checked item to keep it at the end of the checked items
+        mCheckedIds.remove(itemId);
         if (checked) {
             mCheckedIds.add(itemId);
         }
@@ -134,12 +172,15 @@ public class MultipleChoiceMode  extends ObservableChoiceMode {
     }
 
     /**
-     * Returns an unsorted {@link LongArrayList} of checked item ids.
-     * Don't modify it without copying.
+     * Returns a new unsorted {@link LongArrayList} of checked item ids.
      */
     @NonNull
     public LongArrayList getCheckedItems() {
-        return mCheckedIds;
+        final LongArrayList checkedItems = new LongArrayList();
+        for (final long checkedId : mCheckedIds.toArray()) {
+            checkedItems.add(checkedId);
+        }
+        return checkedItems;
     }
 
     /**
@@ -172,7 +213,7 @@ public class MultipleChoiceMode  extends ObservableChoiceMode {
      */
     public void onSaveInstanceState(@NonNull final Bundle outState) {
         final Bundle state = new Bundle();
-        state.putParcelable(KEY_CHECKED_IDS, new LongArrayList(mCheckedIds));
+        state.putParcelable(KEY_CHECKED_IDS, getCheckedItems());
         outState.putBundle(KEY_MULTIPLE_CHOICE_MODE, state);
     }
 
@@ -24,11 +24,12 @@ import android.view.Menu;
 import android.view.MenuItem;
 
 import com.globusltd.collections.LongArrayList;
+import com.globusltd.recyclerview.util.LongHashSet;
 
 /**
  * {@link ChoiceMode} that allows multiple choices in a modal selection mode.
  */
-public class MultipleModalChoiceMode extends ObservableChoiceMode {
+public class MultipleModalChoiceMode extends ObservableChoiceMode implements BulkChoiceMode {
 
     private static final String KEY_MULTIPLE_CHOICE_MODE = "multiple_choice_mode";
     private static final String KEY_CHECKED_IDS = "checked_ids";
@@ -53,7 +54,7 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
      * If there is a value for a given key, the checked state for that ID is true.
      */
     @NonNull
-    private final LongArrayList mCheckedIds;
+    private final LongHashSet mCheckedIds;
 
     public MultipleModalChoiceMode(@NonNull final ActionModeCompat actionModeCompat,
                                    @NonNull final ModalChoiceModeListener listener) {
@@ -66,7 +67,7 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
         super();
         mActionModeCompat = actionModeCompat;
         mActionModeCallbacks = new ActionModeCallbacks(listener);
-        mCheckedIds = new LongArrayList();
+        mCheckedIds = new LongHashSet();
 
         final Bundle state = (savedInstanceState != null ?
                 savedInstanceState.getBundle(KEY_MULTIPLE_CHOICE_MODE) : null);
@@ -77,7 +78,6 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
             }
 
             final int count = checkedIdStates.size();
-            mCheckedIds.clear();
             for (int i = 0; i < count; i++) {
                 mCheckedIds.add(checkedIdStates.get(i));
             }
@@ -149,16 +149,84 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
         setItemCheckedInternal(itemId, checked, false);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setItemsChecked(@NonNull final long[] itemIds, final boolean checked) {
+        if (checked && mActionMode == null) {
+            // Start the action mode only if any of the items is going to be checked
+            for (final long itemId : itemIds) {
+                if (!mCheckedIds.contains(itemId)) {
+                    startActionMode(false);
+                    break;
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (final long itemId : itemIds) {
+            if (checked ? mCheckedIds.add(itemId) : mCheckedIds.remove(itemId)) {
+                changed = true;
+                if (mActionMode != null) {
+                    mActionModeCallbacks.dispatchItemCheckedStateChanged(mActionMode, itemId,
+                            checked, false);
+                }
+            }
+        }
+
+        if (changed) {
+            onItemsCheckedChanged();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invertItemsChecked(@NonNull final long[] itemIds) {
+        if (mActionMode == null) {
+            for (final long itemId : itemIds) {
+                if (!mCheckedIds.contains(itemId)) {
+                    startActionMode(false);
+                    break;
+                }
+            }
+        }
+
+        for (final long itemId : itemIds) {
+            final boolean checked = !mCheckedIds.remove(itemId);
+            if (checked) {
+                mCheckedIds.add(itemId);
+            }
+            if (mActionMode != null) {
+                mActionModeCallbacks.dispatchItemCheckedStateChanged(mActionMode, itemId,
+                        checked, false);
+            }
+        }
+
+        if (itemIds.length > 0) {
+            onItemsCheckedChanged();
+        }
+    }
+
+    private void onItemsCheckedChanged() {
+        notifyAllItemsCheckedChanged(false);
+
+        // Action mode is invalidated once per batch
+        if (mActionMode != null) {
+            mActionModeCallbacks.onCheckedItemsChanged(mActionMode);
+        }
+    }
+
     private void setItemCheckedInternal(final long itemId, final boolean checked,
                                         final boolean fromUser) {
         if (checked) {
             startActionMode(fromUser);
         }
 
-        final int indexOf = mCheckedIds.indexOf(itemId);
-        if (indexOf > -1) {
-            mCheckedIds.removeAt(indexOf);
-        }
+        // Re-add checked item to keep it at the end of the checked items
+        mCheckedIds.remove(itemId);
         if (checked) {
             mCheckedIds.add(itemId);
         }
@@ -170,12 +238,15 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
     }
 
     /**
-     * Returns an unsorted {@link LongArrayList} of checked item ids.
-     * Don't modify it without copying.
+     * Returns a new unsorted {@link LongArrayList} of checked item ids.
      */
     @NonNull
     public LongArrayList getCheckedItems() {
-        return mCheckedIds;
+        final LongArrayList checkedItems = new LongArrayList();
+        for (final long checkedId : mCheckedIds.toArray()) {
+            checkedItems.add(checkedId);
+        }
+        return checkedItems;
     }
 
     /**
@@ -277,7 +348,7 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
      */
     public void onSaveInstanceState(@NonNull final Bundle outState) {
         final Bundle state = new Bundle();
-        state.putParcelable(KEY_CHECKED_IDS, new LongArrayList(mCheckedIds));
+        state.putParcelable(KEY_CHECKED_IDS, getCheckedItems());
         outState.putBundle(KEY_MULTIPLE_CHOICE_MODE, state);
     }
 
@@ -322,8 +393,21 @@ public class MultipleModalChoiceMode extends ObservableChoiceMode {
         public void onItemCheckedStateChanged(@NonNull final ActionMode mode, final long itemId,
                                               final boolean checked, final boolean fromUser) {
             mode.invalidate();
+            dispatchItemCheckedStateChanged(mode, itemId, checked, fromUser);
+            finishIfNothingChecked(mode);
+        }
+
+        void dispatchItemCheckedStateChanged(@NonNull final ActionMode mode, final long itemId,
+                                             final boolean checked, final boolean fromUser) {
             mModalChoiceModeListener.onItemCheckedStateChanged(mode, itemId, checked, fromUser);
+        }
+
+        void onCheckedItemsChanged(@NonNull final ActionMode mode) {
+            mode.invalidate();
+            finishIfNothingChecked(mode);
+        }
 
+        private void finishIfNothingChecked(@NonNull final ActionMode mode) {
             // If there are no items selected we no longer need the selection mode.
             if (mFinishActionModeOnClearEnabled && getCheckedItemCount() == 0) {
                 mFinishFromUser = true;
@@ -22,7 +22,7 @@ import android.support.annotation.NonNull;
  * {@link ChoiceMode} that does not have any choice behavior.
  * It is a default adapter's choice mode.
  */
-public final class NoneChoiceMode implements ChoiceMode {
+public final class NoneChoiceMode implements BulkChoiceMode {
     
     public NoneChoiceMode() {
         super();
@@ -75,6 +75,20 @@ public final class NoneChoiceMode implements ChoiceMode {
     @Override
     public void setItemChecked(final long itemId, final boolean checked) {
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setItemsChecked(@NonNull final long[] itemIds, final boolean checked) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invertItemsChecked(@NonNull final long[] itemIds) {
+    }
     
     /**
      * {@inheritDoc}
@@ -26,7 +26,7 @@ import android.support.v7.widget.RecyclerView;
  * {@link ChoiceMode} that allows up to one choice.
  */
 @MainThread
-public class SingleChoiceMode extends ObservableChoiceMode {
+public class SingleChoiceMode extends ObservableChoiceMode implements BulkChoiceMode {
 
     private static final String KEY_SINGLE_CHOICE_MODE = "single_choice_mode";
     private static final String KEY_CHECKED_ID = "checked_id";
@@ -111,6 +111,51 @@ public class SingleChoiceMode extends ObservableChoiceMode {
         setItemCheckedInternal(itemId, checked, false);
     }
     
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the last item of the batch remains checked.
+     */
+    @Override
+    public void setItemsChecked(@NonNull final long[] itemIds, final boolean checked) {
+        final int count = itemIds.length;
+        if (count == 0) {
+            return;
+        }
+
+        if (checked) {
+            setItemCheckedInternal(itemIds[count - 1], true, false);
+        } else {
+            for (final long itemId : itemIds) {
+                if (itemId == mCheckedId) {
+                    setItemCheckedInternal(itemId, false, false);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Items are inverted one by one, so the last inverted unchecked item remains checked.
+     */
+    @Override
+    public void invertItemsChecked(@NonNull final long[] itemIds) {
+        long checkedId = mCheckedId;
+        for (final long itemId : itemIds) {
+            checkedId = (itemId == checkedId ? RecyclerView.NO_ID : itemId);
+        }
+
+        if (checkedId != mCheckedId) {
+            if (checkedId == RecyclerView.NO_ID) {
+                setItemCheckedInternal(mCheckedId, false, false);
+            } else {
+                setItemCheckedInternal(checkedId, true, false);
+            }
+        }
+    }
+
     private void setItemCheckedInternal(final long itemId, final boolean checked,
                                         final boolean fromUser) {
         final long checkedId = mCheckedId;
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.globusltd.recyclerview.diff.FieldChanges;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DatasourceObservable} that is able to collect changes into a batch
+ * and dispatch them at once when the batch is committed.
+ * <p>
+ * Adjacent changes of the same type are merged into a single range the same way as
+ * {@link android.support.v7.util.BatchingListUpdateCallback} does, so a loop of
+ * single-item insertions, removals or changes results in a minimal number of events.
+ * Adjacent changes with {@link FieldChanges} payloads are merged too, the merged range
+ * gets the union of the changed fields.
+ */
+@MainThread
+public class BatchingDatasourceObservable extends DatasourceObservable {
+
+    private static final int TYPE_INSERT = 1;
+    private static final int TYPE_REMOVE = 2;
+    private static final int TYPE_CHANGE = 3;
+    private static final int TYPE_MOVE = 4;
+
+    @NonNull
+    private final List<Update> mUpdates;
+
+    private int mBatchDepth;
+    private boolean mChangedInBatch;
+
+    public BatchingDatasourceObservable() {
+        super();
+        mUpdates = new ArrayList<>();
+    }
+
+    /**
+     * Starts collecting changes into a batch. Batches can be nested,
+     * changes are dispatched when the outermost batch is ended.
+     *
+     * @see #endBatch()
+     */
+    public void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /**
+     * Ends the batch started by {@link #beginBatch()} and dispatches
+     * all collected changes to the registered observers.
+     *
+     * @throws IllegalStateException if there is no batch in progress.
+     */
+    public void endBatch() {
+        if (mBatchDepth == 0) {
+            throw new IllegalStateException("endBatch() is called without beginBatch()");
+        }
+
+        mBatchDepth--;
+        if (mBatchDepth == 0) {
+            dispatchUpdates();
+        }
+    }
+
+    /**
+     * Returns true when the batch is in progress.
+     */
+    public boolean isInBatch() {
+        return (mBatchDepth > 0);
+    }
+
+    private void dispatchUpdates() {
+        if (mChangedInBatch) {
+            mChangedInBatch = false;
+            mUpdates.clear();
+            super.notifyChanged();
+            return;
+        }
+
+        final int size = mUpdates.size();
+        for (int i = 0; i < size; i++) {
+            final Update update = mUpdates.get(i);
+            switch (update.mType) {
+                case TYPE_INSERT:
+                    super.notifyItemRangeInserted(update.mPosition, update.mItemCount);
+                    break;
+
+                case TYPE_REMOVE:
+                    super.notifyItemRangeRemoved(update.mPosition, update.mItemCount);
+                    break;
+
+                case TYPE_CHANGE:
+                    super.notifyItemRangeChanged(update.mPosition, update.mItemCount, update.mPayload);
+                    break;
+
+                case TYPE_MOVE:
+                    super.notifyItemMoved(update.mPosition, update.mItemCount);
+                    break;
+            }
+        }
+        mUpdates.clear();
+    }
+
+    @Nullable
+    private Update getLastUpdate(final int type) {
+        final int size = mUpdates.size();
+        final Update update = (size > 0 ? mUpdates.get(size - 1) : null);
+        return (update != null && update.mType == type ? update : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyChanged() {
+        if (mBatchDepth == 0) {
+            super.notifyChanged();
+        } else {
+            // Generic change supersedes any other change in the batch
+            mChangedInBatch = true;
+            mUpdates.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyItemRangeChanged(@IntRange(from = 0) final int positionStart,
+                                       @IntRange(from = 0) final int itemCount,
+                                       @Nullable final Object payload) {
+        if (mBatchDepth == 0) {
+            super.notifyItemRangeChanged(positionStart, itemCount, payload);
+        } else if (!mChangedInBatch) {
+            final Update last = getLastUpdate(TYPE_CHANGE);
+            if (last != null && canMergePayloads(last.mPayload, payload) &&
+                    positionStart <= last.mPosition + last.mItemCount &&
+                    positionStart + itemCount >= last.mPosition) {
+                final int end = Math.max(last.mPosition + last.mItemCount, positionStart + itemCount);
+                last.mPosition = Math.min(positionStart, last.mPosition);
+                last.mItemCount = end - last.mPosition;
+                if (last.mPayload != payload) {
+                    last.mPayload = ((FieldChanges) last.mPayload).merge((FieldChanges) payload);
+                }
+            } else {
+                mUpdates.add(new Update(TYPE_CHANGE, positionStart, itemCount, payload));
+            }
+        }
+    }
+
+    private static boolean canMergePayloads(@Nullable final Object payload,
+                                            @Nullable final Object otherPayload) {
+        return (payload == otherPayload ||
+                (payload instanceof FieldChanges && otherPayload instanceof FieldChanges));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyItemRangeInserted(@IntRange(from = 0) final int positionStart,
+                                        @IntRange(from = 0) final int itemCount) {
+        if (mBatchDepth == 0) {
+            super.notifyItemRangeInserted(positionStart, itemCount);
+        } else if (!mChangedInBatch) {
+            final Update last = getLastUpdate(TYPE_INSERT);
+            if (last != null && positionStart >= last.mPosition &&
+                    positionStart <= last.mPosition + last.mItemCount) {
+                last.mItemCount += itemCount;
+            } else {
+                mUpdates.add(new Update(TYPE_INSERT, positionStart, itemCount, null));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyItemRangeRemoved(@IntRange(from = 0) final int positionStart,
+                                       @IntRange(from = 0) final int itemCount) {
+        if (mBatchDepth == 0) {
+            super.notifyItemRangeRemoved(positionStart, itemCount);
+        } else if (!mChangedInBatch) {
+            final Update last = getLastUpdate(TYPE_REMOVE);
+            if (last != null && last.mPosition >= positionStart &&
+                    last.mPosition <= positionStart + itemCount) {
+                last.mPosition = positionStart;
+                last.mItemCount += itemCount;
+            } else {
+                mUpdates.add(new Update(TYPE_REMOVE, positionStart, itemCount, null));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyItemMoved(@IntRange(from = 0) final int fromPosition,
+                                @IntRange(from = 0) final int toPosition) {
+        if (mBatchDepth == 0) {
+            super.notifyItemMoved(fromPosition, toPosition);
+        } else if (!mChangedInBatch) {
+            mUpdates.add(new Update(TYPE_MOVE, fromPosition, toPosition, null));
+        }
+    }
+
+    private static class Update {
+
+        final int mType;
+
+        int mPosition;
+
+        /**
+         * Number of items or target position for moves.
+         */
+        int mItemCount;
+
+        @Nullable
+        Object mPayload;
+
+        Update(final int type, final int position, final int itemCount,
+               @Nullable final Object payload) {
+            mType = type;
+            mPosition = position;
+            mItemCount = itemCount;
+            mPayload = payload;
+        }
+
+    }
+
+}
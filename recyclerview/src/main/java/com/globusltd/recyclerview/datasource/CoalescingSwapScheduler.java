@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.globusltd.recyclerview.DatasourceSwappable;
+import com.globusltd.recyclerview.DatasourceSwappable.SwapCallback;
+import com.globusltd.recyclerview.util.FrameScheduler;
+
+/**
+ * Coalesces rapid datasource updates into as few swaps as possible.
+ * <p>
+ * Datasources passed to {@link #schedule(Datasource, SwapCallback)} are not swapped
+ * immediately: only the latest datasource that has arrived before the next frame is passed
+ * to {@link DatasourceSwappable#swapAsync(Datasource, SwapCallback)}. While the diff is being
+ * calculated newer datasources keep replacing each other and the latest of them is swapped
+ * after the current swap is completed, so the diff is always calculated between
+ * the datasource on the screen and the latest one. Datasources that have been dropped
+ * are reported to their callbacks by {@link SwapCallback#onSwapCancelled(Datasource)}.
+ * <pre>
+ * CoalescingSwapScheduler&lt;Quote&gt; scheduler = new CoalescingSwapScheduler&lt;&gt;(adapter);
+ * ...
+ * public void onSnapshot(List&lt;Quote&gt; quotes) {
+ *     scheduler.schedule(new ListDatasource&lt;&gt;(quotes), null);
+ * }
+ * </pre>
+ *
+ * @param <E> Type of elements handled by datasource.
+ */
+@MainThread
+public class CoalescingSwapScheduler<E> {
+
+    @NonNull
+    private final DatasourceSwappable<E> mSwappable;
+
+    @NonNull
+    private final FrameScheduler mFrameScheduler;
+
+    @NonNull
+    private final SwapCallback<E> mSwapCallback;
+
+    @Nullable
+    private Datasource<? extends E> mPendingDatasource;
+
+    @Nullable
+    private SwapCallback<E> mPendingCallback;
+
+    @Nullable
+    private Datasource<? extends E> mSwappingDatasource;
+
+    @Nullable
+    private SwapCallback<E> mSwappingCallback;
+
+    private int mSwapCount;
+    private int mSkippedSwapCount;
+
+    /**
+     * @param swappable The adapter or any other component to swap datasources in.
+     */
+    public CoalescingSwapScheduler(@NonNull final DatasourceSwappable<E> swappable) {
+        mSwappable = swappable;
+        mFrameScheduler = new FrameScheduler(new Runnable() {
+
+            @Override
+            public void run() {
+                swapPendingDatasource();
+            }
+
+        });
+        mSwapCallback = new SwapCallbackImpl();
+    }
+
+    /**
+     * Schedules swapping the datasource at the beginning of the next frame. The datasource
+     * that has been scheduled before and has not been swapped yet is dropped.
+     *
+     * @param datasource The new datasource that should replace the current one.
+     * @param callback   Optional callback to be notified when swap is completed or cancelled.
+     */
+    public void schedule(@NonNull final Datasource<? extends E> datasource,
+                         @Nullable final SwapCallback<E> callback) {
+        dropPendingDatasource();
+        mPendingDatasource = datasource;
+        mPendingCallback = callback;
+        if (mSwappingDatasource == null) {
+            mFrameScheduler.schedule();
+        }
+    }
+
+    /**
+     * Drops the scheduled datasource that has not been swapped yet. The swap
+     * that is already in progress is not affected.
+     */
+    public void cancel() {
+        mFrameScheduler.cancel();
+        dropPendingDatasource();
+    }
+
+    /**
+     * Returns the number of datasources that have been passed to the swappable.
+     */
+    @IntRange(from = 0)
+    public int getSwapCount() {
+        return mSwapCount;
+    }
+
+    /**
+     * Returns the number of datasources that have been dropped because
+     * a newer datasource has arrived before they were swapped.
+     */
+    @IntRange(from = 0)
+    public int getSkippedSwapCount() {
+        return mSkippedSwapCount;
+    }
+
+    /**
+     * Resets swap counters to zero.
+     */
+    public void resetSwapCounters() {
+        mSwapCount = 0;
+        mSkippedSwapCount = 0;
+    }
+
+    private void dropPendingDatasource() {
+        final Datasource<? extends E> datasource = mPendingDatasource;
+        final SwapCallback<E> callback = mPendingCallback;
+        mPendingDatasource = null;
+        mPendingCallback = null;
+        if (datasource != null) {
+            mSkippedSwapCount++;
+            if (callback != null) {
+                callback.onSwapCancelled(datasource);
+            }
+        }
+    }
+
+    private void swapPendingDatasource() {
+        final Datasource<? extends E> datasource = mPendingDatasource;
+        if (datasource == null || mSwappingDatasource != null) {
+            return;
+        }
+
+        mSwappingDatasource = datasource;
+        mSwappingCallback = mPendingCallback;
+        mPendingDatasource = null;
+        mPendingCallback = null;
+        mSwapCount++;
+        mSwappable.swapAsync(datasource, mSwapCallback);
+    }
+
+    private void onSwapFinished() {
+        mSwappingDatasource = null;
+        mSwappingCallback = null;
+        if (mPendingDatasource != null) {
+            mFrameScheduler.schedule();
+        }
+    }
+
+    private class SwapCallbackImpl implements SwapCallback<E> {
+
+        @Override
+        public void onSwapped(@NonNull final Datasource<? extends E> oldDatasource,
+                              @NonNull final Datasource<? extends E> newDatasource) {
+            final SwapCallback<E> callback = mSwappingCallback;
+            onSwapFinished();
+            if (callback != null) {
+                callback.onSwapped(oldDatasource, newDatasource);
+            }
+        }
+
+        @Override
+        public void onSwapCancelled(@NonNull final Datasource<? extends E> datasource) {
+            final SwapCallback<E> callback = mSwappingCallback;
+            onSwapFinished();
+            if (callback != null) {
+                callback.onSwapCancelled(datasource);
+            }
+        }
+
+    }
+
+}
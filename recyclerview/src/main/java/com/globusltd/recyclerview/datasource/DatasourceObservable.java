@@ -19,17 +19,17 @@ import android.support.annotation.IntRange;
 import android.support.annotation.MainThread;
 import android.support.annotation.Nullable;
 
-import com.globusltd.recyclerview.util.Observable;
+import com.globusltd.recyclerview.util.CopyOnWriteObservable;
 
 /**
  * {@link DatasourceObservable} provides methods for registering, unregistering
  * and dispatching data changes in the datasources to the registered {@link DatasourceObserver}s.
  */
 @MainThread
-public class DatasourceObservable extends Observable<DatasourceObserver> {
+public class DatasourceObservable extends CopyOnWriteObservable<DatasourceObserver> {
     
     public DatasourceObservable() {
-        super();
+        super(new DatasourceObserver[0]);
     }
     
     /**
@@ -37,9 +37,9 @@ public class DatasourceObservable extends Observable<DatasourceObserver> {
      * Note that method can be called multiple times.
      */
     public void notifyChanged() {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).onChanged();
+        final DatasourceObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].onChanged();
         }
     }
     
@@ -54,9 +54,9 @@ public class DatasourceObservable extends Observable<DatasourceObserver> {
     public void notifyItemRangeChanged(@IntRange(from = 0) final int positionStart,
                                        @IntRange(from = 0) final int itemCount,
                                        @Nullable final Object payload) {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).onItemRangeChanged(positionStart, itemCount, payload);
+        final DatasourceObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].onItemRangeChanged(positionStart, itemCount, payload);
         }
     }
     
@@ -69,9 +69,9 @@ public class DatasourceObservable extends Observable<DatasourceObserver> {
      */
     public void notifyItemRangeInserted(@IntRange(from = 0) final int positionStart,
                                         @IntRange(from = 0) final int itemCount) {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
+        final DatasourceObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].onItemRangeInserted(positionStart, itemCount);
         }
     }
     
@@ -84,9 +84,9 @@ public class DatasourceObservable extends Observable<DatasourceObserver> {
      */
     public void notifyItemRangeRemoved(@IntRange(from = 0) final int positionStart,
                                        @IntRange(from = 0) final int itemCount) {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
+        final DatasourceObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].onItemRangeRemoved(positionStart, itemCount);
         }
     }
     
@@ -100,9 +100,9 @@ public class DatasourceObservable extends Observable<DatasourceObserver> {
      */
     public void notifyItemMoved(@IntRange(from = 0) final int fromPosition,
                                 @IntRange(from = 0) final int toPosition) {
-        final int size = mObservers.size();
-        for (int i = size - 1; i >= 0; i--) {
-            mObservers.get(i).onItemMoved(fromPosition, toPosition);
+        final DatasourceObserver[] observers = getObservers();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            observers[i].onItemMoved(fromPosition, toPosition);
         }
     }
     
@@ -25,6 +25,7 @@ import android.support.v7.widget.RecyclerView;
 import com.globusltd.recyclerview.DatasourceSwappable;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 @MainThread
 @RestrictTo(RestrictTo.Scope.LIBRARY)
@@ -57,6 +58,16 @@ public class DatasourceOwner<E> implements DatasourceSwappable<E> {
         return mDatasource.swap(datasource);
     }
 
+    @Override
+    public void swapAsync(@NonNull final Datasource<? extends E> datasource,
+                          @Nullable final SwapCallback<E> callback) {
+        mDatasource.swapAsync(datasource, callback);
+    }
+
+    public void setDiffExecutor(@NonNull final Executor executor) {
+        mDatasource.setDiffExecutor(executor);
+    }
+
     /**
      * {@inheritDoc}
      */
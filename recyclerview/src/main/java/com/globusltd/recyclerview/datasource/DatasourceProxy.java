@@ -15,17 +15,22 @@
  */
 package com.globusltd.recyclerview.datasource;
 
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.IntRange;
 import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.RestrictTo;
-import android.support.v7.util.DiffUtil;
 import android.support.v7.util.ListUpdateCallback;
 
 import com.globusltd.recyclerview.DatasourceSwappable;
 import com.globusltd.recyclerview.diff.DiffCallback;
 import com.globusltd.recyclerview.diff.DiffCallbackFactory;
+import com.globusltd.recyclerview.diff.DiffResult;
+
+import java.util.concurrent.Executor;
 
 @MainThread
 @RestrictTo(RestrictTo.Scope.LIBRARY)
@@ -43,9 +48,24 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
     @NonNull
     private final ListUpdateCallback mListUpdateCallback;
 
+    @NonNull
+    private final Handler mMainThreadHandler;
+
+    @NonNull
+    private Executor mDiffExecutor;
+
     @NonNull
     private Datasource<? extends E> mDatasource;
 
+    /**
+     * Incremented every time the current datasource dispatches a change,
+     * used to detect modifications made while the diff is being calculated.
+     */
+    private int mDatasourceVersion;
+
+    @Nullable
+    private PendingSwap mPendingSwap;
+
     public DatasourceProxy(@NonNull final Datasource<? extends E> datasource,
                            @Nullable final DiffCallbackFactory<E> diffCallbackFactory) {
         mDatasource = datasource;
@@ -54,13 +74,27 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
         mDatasourceObservable = new DatasourceObservable();
         mDatasourceObserver = new DatasourceObserverProxy();
         mListUpdateCallback = new DatasourceListUpdateCallback();
+        mMainThreadHandler = new Handler(Looper.getMainLooper());
+        mDiffExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
 
         mDatasource.registerDatasourceObserver(mDatasourceObserver);
     }
 
+    /**
+     * Sets an {@link Executor} that is used to calculate diffs for asynchronous swaps.
+     * By default {@link AsyncTask#THREAD_POOL_EXECUTOR} is used.
+     *
+     * @param executor The executor to calculate diffs on.
+     */
+    public void setDiffExecutor(@NonNull final Executor executor) {
+        mDiffExecutor = executor;
+    }
+
     @Nullable
     @Override
     public Datasource<? extends E> swap(@NonNull final Datasource<? extends E> datasource) {
+        cancelPendingSwap();
+
         final Datasource<? extends E> oldDatasource = mDatasource;
         oldDatasource.unregisterDatasourceObserver(mDatasourceObserver);
 
@@ -75,8 +109,7 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
                     .createDiffCallback(oldDatasource, datasource);
             mDatasource = datasource;
             mDatasource.registerDatasourceObserver(mDatasourceObserver);
-            DiffUtil.calculateDiff(diffCallback, diffCallback.shouldDetectMoves())
-                    .dispatchUpdatesTo(mListUpdateCallback);
+            diffCallback.calculateDiff().dispatchUpdatesTo(mListUpdateCallback);
 
         } else {
             mDatasource = datasource;
@@ -87,6 +120,57 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
         return oldDatasource;
     }
 
+    @Override
+    public void swapAsync(@NonNull final Datasource<? extends E> datasource,
+                          @Nullable final SwapCallback<E> callback) {
+        cancelPendingSwap();
+
+        final Datasource<? extends E> oldDatasource = mDatasource;
+        if (oldDatasource.size() == 0 || mDiffCallbackFactory == null) {
+            swap(datasource);
+            if (callback != null) {
+                callback.onSwapped(oldDatasource, datasource);
+            }
+
+        } else {
+            final DiffCallback diffCallback = mDiffCallbackFactory
+                    .createDiffCallback(oldDatasource, datasource);
+            mPendingSwap = new PendingSwap(oldDatasource, datasource, diffCallback, callback);
+            mDiffExecutor.execute(mPendingSwap);
+        }
+    }
+
+    private void cancelPendingSwap() {
+        final PendingSwap pendingSwap = mPendingSwap;
+        if (pendingSwap != null) {
+            mPendingSwap = null;
+            pendingSwap.cancel();
+        }
+    }
+
+    private void applyPendingSwap(@NonNull final PendingSwap pendingSwap,
+                                  @NonNull final DiffResult diffResult) {
+        mPendingSwap = null;
+
+        final Datasource<? extends E> oldDatasource = pendingSwap.mOldDatasource;
+        final Datasource<? extends E> datasource = pendingSwap.mNewDatasource;
+        oldDatasource.unregisterDatasourceObserver(mDatasourceObserver);
+        mDatasource = datasource;
+        mDatasource.registerDatasourceObserver(mDatasourceObserver);
+
+        if (pendingSwap.mDatasourceVersion == mDatasourceVersion) {
+            diffResult.dispatchUpdatesTo(mListUpdateCallback);
+        } else {
+            // The old datasource has been modified during diff calculation,
+            // so the result doesn't describe the actual changes anymore.
+            mDatasourceObservable.notifyChanged();
+        }
+
+        if (pendingSwap.mCallback != null) {
+            pendingSwap.mCallback.onSwapped(oldDatasource, datasource);
+        }
+    }
+
     @NonNull
     @Override
     public E get(@IntRange(from = 0) final int position) {
@@ -112,6 +196,7 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
 
         @Override
         public void onChanged() {
+            mDatasourceVersion++;
             mDatasourceObservable.notifyChanged();
         }
 
@@ -119,24 +204,28 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
         public void onItemRangeChanged(@IntRange(from = 0) final int positionStart,
                                        @IntRange(from = 0) final int itemCount,
                                        @Nullable final Object payload) {
+            mDatasourceVersion++;
             mDatasourceObservable.notifyItemRangeChanged(positionStart, itemCount, payload);
         }
 
         @Override
         public void onItemRangeInserted(@IntRange(from = 0) final int positionStart,
                                         @IntRange(from = 0) final int itemCount) {
+            mDatasourceVersion++;
             mDatasourceObservable.notifyItemRangeInserted(positionStart, itemCount);
         }
 
         @Override
         public void onItemRangeRemoved(@IntRange(from = 0) final int positionStart,
                                        @IntRange(from = 0) final int itemCount) {
+            mDatasourceVersion++;
             mDatasourceObservable.notifyItemRangeRemoved(positionStart, itemCount);
         }
 
         @Override
         public void onItemMoved(@IntRange(from = 0) final int fromPosition,
                                 @IntRange(from = 0) final int toPosition) {
+            mDatasourceVersion++;
             mDatasourceObservable.notifyItemMoved(fromPosition, toPosition);
         }
 
@@ -166,4 +255,80 @@ public class DatasourceProxy<E> implements Datasource<E>, DatasourceSwappable<E>
 
     }
 
+    /**
+     * Calculates diff on the worker thread and delivers the result back to the main thread.
+     */
+    private class PendingSwap implements Runnable {
+
+        @NonNull
+        final Datasource<? extends E> mOldDatasource;
+
+        @NonNull
+        final Datasource<? extends E> mNewDatasource;
+
+        @NonNull
+        final DiffCallback mDiffCallback;
+
+        @Nullable
+        final SwapCallback<E> mCallback;
+
+        final int mDatasourceVersion;
+
+        private volatile boolean mCancelled;
+
+        PendingSwap(@NonNull final Datasource<? extends E> oldDatasource,
+                    @NonNull final Datasource<? extends E> newDatasource,
+                    @NonNull final DiffCallback diffCallback,
+                    @Nullable final SwapCallback<E> callback) {
+            mOldDatasource = oldDatasource;
+            mNewDatasource = newDatasource;
+            mDiffCallback = diffCallback;
+            mCallback = callback;
+            mDatasourceVersion = DatasourceProxy.this.mDatasourceVersion;
+        }
+
+        @Override
+        public void run() {
+            if (mCancelled) {
+                return;
+            }
+
+            DiffResult calculatedDiffResult = null;
+            RuntimeException calculationException = null;
+            try {
+                calculatedDiffResult = mDiffCallback.calculateDiff();
+            } catch (final RuntimeException e) {
+                // The exception would be lost on the executor's thread,
+                // so it's rethrown on the main thread as a synchronous swap would do.
+                calculationException = e;
+            }
+
+            final DiffResult diffResult = calculatedDiffResult;
+            final RuntimeException exception = calculationException;
+            mMainThreadHandler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (!mCancelled && mPendingSwap == PendingSwap.this) {
+                        if (exception != null) {
+                            mPendingSwap = null;
+                            throw exception;
+                        }
+                        applyPendingSwap(PendingSwap.this, diffResult);
+                    }
+                }
+
+            });
+        }
+
+        @MainThread
+        void cancel() {
+            mCancelled = true;
+            if (mCallback != null) {
+                mCallback.onSwapCancelled(mNewDatasource);
+            }
+        }
+
+    }
+
 }
@@ -34,7 +34,7 @@ public class ListDatasource<E> implements Datasource<E> {
     private final List<E> mItems;
 
     @NonNull
-    private final DatasourceObservable mDatasourceObservable;
+    private final BatchingDatasourceObservable mDatasourceObservable;
 
     public ListDatasource() {
         this(Collections.<E>emptyList());
@@ -42,7 +42,37 @@ public class ListDatasource<E> implements Datasource<E> {
 
     public ListDatasource(@NonNull final List<? extends E> items) {
         mItems = new ArrayList<>(items);
-        mDatasourceObservable = new DatasourceObservable();
+        mDatasourceObservable = new BatchingDatasourceObservable();
+    }
+
+    /**
+     * Starts a batch of modifications. Changes made until {@link #endBatch()} is called
+     * are merged into minimal ranges and dispatched to the observers at once.
+     * <p>
+     * Batches can be nested, changes are dispatched when the outermost batch is ended.
+     * <pre>
+     *     datasource.beginBatch();
+     *     try {
+     *         for (MyItem item : items) {
+     *             datasource.add(item);
+     *         }
+     *     } finally {
+     *         datasource.endBatch();
+     *     }
+     * </pre>
+     */
+    public void beginBatch() {
+        mDatasourceObservable.beginBatch();
+    }
+
+    /**
+     * Ends a batch of modifications started by {@link #beginBatch()}
+     * and dispatches collected changes to the observers.
+     *
+     * @throws IllegalStateException if there is no batch in progress.
+     */
+    public void endBatch() {
+        mDatasourceObservable.endBatch();
     }
 
     /**
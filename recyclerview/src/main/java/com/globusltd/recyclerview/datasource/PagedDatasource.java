@@ -0,0 +1,362 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v4.util.LruCache;
+import android.util.SparseBooleanArray;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Datasource implementation that loads elements page by page.
+ * <p>
+ * {@link PagedDatasource} reports the total number of elements from the very beginning
+ * and returns placeholders for elements that have not been loaded yet. When an unloaded
+ * element is requested, its page and the pages within the prefetch distance are loaded
+ * on the background {@link Executor}, and observers are notified about the changed range
+ * when the page arrives. Only a limited number of the least recently used pages are kept
+ * in memory. A page that has failed to load is not requested again until
+ * {@link #retryFailedPages()} or {@link #invalidate()} is called.
+ *
+ * @param <E> Type of elements handled by datasource.
+ */
+@MainThread
+public class PagedDatasource<E> implements Datasource<E> {
+
+    /**
+     * Loads pages of elements and provides placeholders for elements that are not loaded.
+     *
+     * @param <E> Type of elements handled by datasource.
+     */
+    public interface PageLoader<E> {
+
+        /**
+         * Loads a page of elements. Called on the worker thread. A runtime exception
+         * thrown by the loader marks the page as failed and is reported to
+         * {@link #onPageLoadFailed(int, int, RuntimeException)}, placeholders are shown
+         * for its elements until the page is loaded again.
+         *
+         * @param positionStart Position of the first element of the page.
+         * @param itemCount     Number of elements in the page.
+         * @return Loaded elements, the list should contain exactly
+         * <code>itemCount</code> elements.
+         */
+        @WorkerThread
+        @NonNull
+        List<? extends E> loadPage(@IntRange(from = 0) final int positionStart,
+                                   @IntRange(from = 1) final int itemCount);
+
+        /**
+         * Returns a placeholder for the element that is not loaded yet.
+         *
+         * @param position Position of the element.
+         * @return A placeholder element.
+         */
+        @MainThread
+        @NonNull
+        E getPlaceholder(@IntRange(from = 0) final int position);
+
+        /**
+         * Called when a page could not be loaded.
+         *
+         * @param positionStart Position of the first element of the page.
+         * @param itemCount     Number of elements in the page.
+         * @param exception     The exception thrown by {@link #loadPage(int, int)}.
+         */
+        @MainThread
+        void onPageLoadFailed(@IntRange(from = 0) final int positionStart,
+                              @IntRange(from = 1) final int itemCount,
+                              @NonNull final RuntimeException exception);
+
+    }
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_MAX_PAGES = 10;
+
+    @NonNull
+    private final PageLoader<E> mPageLoader;
+
+    @NonNull
+    private final Executor mExecutor;
+
+    @NonNull
+    private final Handler mMainThreadHandler;
+
+    @NonNull
+    private final DatasourceObservable mDatasourceObservable;
+
+    @NonNull
+    private final LruCache<Integer, List<? extends E>> mPages;
+
+    @NonNull
+    private final SparseBooleanArray mLoadingPages;
+
+    @NonNull
+    private final SparseBooleanArray mFailedPages;
+
+    private final int mSize;
+    private final int mPageSize;
+    private final int mPrefetchDistance;
+
+    /**
+     * Incremented when loaded pages are invalidated, so pages that are
+     * being loaded at that moment will be dropped.
+     */
+    private int mGeneration;
+
+    public PagedDatasource(@IntRange(from = 0) final int size,
+                           @NonNull final PageLoader<E> pageLoader) {
+        this(size, pageLoader, DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES,
+                AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param size             The total number of elements.
+     * @param pageLoader       Loads pages and provides placeholders.
+     * @param pageSize         Number of elements in a single page.
+     * @param prefetchDistance Number of elements around the requested one
+     *                         that should be loaded in advance.
+     * @param maxPages         Maximum number of pages kept in memory, should be enough
+     *                         to keep all of the pages within the prefetch distance.
+     * @param executor         The executor to load pages on.
+     */
+    public PagedDatasource(@IntRange(from = 0) final int size,
+                           @NonNull final PageLoader<E> pageLoader,
+                           @IntRange(from = 1) final int pageSize,
+                           @IntRange(from = 0) final int prefetchDistance,
+                           @IntRange(from = 1) final int maxPages,
+                           @NonNull final Executor executor) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size should be positive");
+        }
+        // Pages within the prefetch distance should fit in memory,
+        // otherwise they will evict each other and will be loaded again and again
+        final int minPages = (2 * prefetchDistance) / pageSize + 2;
+        if (maxPages < minPages) {
+            throw new IllegalArgumentException("Max pages should be at least " + minPages +
+                    " to keep all of the prefetched pages in memory");
+        }
+
+        mSize = size;
+        mPageLoader = pageLoader;
+        mPageSize = pageSize;
+        mPrefetchDistance = prefetchDistance;
+        mExecutor = executor;
+        mMainThreadHandler = new Handler(Looper.getMainLooper());
+        mDatasourceObservable = new DatasourceObservable();
+        mPages = new LruCache<>(maxPages);
+        mLoadingPages = new SparseBooleanArray();
+        mFailedPages = new SparseBooleanArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns a placeholder provided by {@link PageLoader#getPlaceholder(int)}
+     * when the element is not loaded yet.
+     */
+    @NonNull
+    @Override
+    public E get(@IntRange(from = 0) final int position) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Datasource has no element at position=" + position);
+        }
+
+        final int page = position / mPageSize;
+        final List<? extends E> items = mPages.get(page);
+
+        final int firstPage = Math.max(position - mPrefetchDistance, 0) / mPageSize;
+        final int lastPage = Math.min(position + mPrefetchDistance, mSize - 1) / mPageSize;
+        loadPageIfNeeded(page);
+        for (int i = firstPage; i <= lastPage; i++) {
+            loadPageIfNeeded(i);
+        }
+
+        final int index = position - page * mPageSize;
+        return (items != null && index < items.size() ?
+                items.get(index) : mPageLoader.getPlaceholder(position));
+    }
+
+    /**
+     * Returns true if the element at the specified position is loaded.
+     *
+     * @param position position of the element.
+     * @return true if the element is loaded, false if it is a placeholder.
+     */
+    public boolean isLoaded(@IntRange(from = 0) final int position) {
+        return (mPages.get(position / mPageSize) != null);
+    }
+
+    /**
+     * Returns true if the page of the element at the specified position has failed to load.
+     *
+     * @param position position of the element.
+     * @return true if the element's page has failed to load and is not being loaded again.
+     */
+    public boolean isLoadFailed(@IntRange(from = 0) final int position) {
+        return mFailedPages.get(position / mPageSize);
+    }
+
+    /**
+     * Allows to load the pages that have failed to load. Observers are notified
+     * about elements of these pages, so they will be loaded when requested next time.
+     */
+    public void retryFailedPages() {
+        final int failedPageCount = mFailedPages.size();
+        if (failedPageCount == 0) {
+            return;
+        }
+
+        final int[] failedPages = new int[failedPageCount];
+        for (int i = 0; i < failedPageCount; i++) {
+            failedPages[i] = mFailedPages.keyAt(i);
+        }
+        mFailedPages.clear();
+        for (final int page : failedPages) {
+            final int positionStart = page * mPageSize;
+            final int itemCount = Math.min(mPageSize, mSize - positionStart);
+            mDatasourceObservable.notifyItemRangeChanged(positionStart, itemCount, null);
+        }
+    }
+
+    /**
+     * Drops all loaded pages, failed pages and pages that are being loaded.
+     * Elements will be loaded again when they are requested next time.
+     */
+    public void invalidate() {
+        mGeneration++;
+        mPages.evictAll();
+        mLoadingPages.clear();
+        mFailedPages.clear();
+        mDatasourceObservable.notifyItemRangeChanged(0, mSize, null);
+    }
+
+    private void loadPageIfNeeded(final int page) {
+        if (mLoadingPages.get(page) || mFailedPages.get(page) || mPages.get(page) != null) {
+            return;
+        }
+
+        final int positionStart = page * mPageSize;
+        final int itemCount = Math.min(mPageSize, mSize - positionStart);
+        mLoadingPages.put(page, true);
+        mExecutor.execute(new LoadPageRunnable(mGeneration, page, positionStart, itemCount));
+    }
+
+    @MainThread
+    private void onPageLoaded(final int generation, final int page,
+                              final int positionStart, @NonNull final List<? extends E> items) {
+        if (generation != mGeneration) {
+            return;
+        }
+
+        mLoadingPages.delete(page);
+        mPages.put(page, items);
+        mDatasourceObservable.notifyItemRangeChanged(positionStart, items.size(), null);
+    }
+
+    @MainThread
+    private void onPageLoadFailed(final int generation, final int page, final int positionStart,
+                                  final int itemCount, @NonNull final RuntimeException exception) {
+        if (generation != mGeneration) {
+            return;
+        }
+
+        // The page is not requested again on every bind until the failure is handled
+        mLoadingPages.delete(page);
+        mFailedPages.put(page, true);
+        mPageLoader.onPageLoadFailed(positionStart, itemCount, exception);
+        mDatasourceObservable.notifyItemRangeChanged(positionStart, itemCount, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void registerDatasourceObserver(@NonNull final DatasourceObserver observer) {
+        mDatasourceObservable.registerObserver(observer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregisterDatasourceObserver(@NonNull final DatasourceObserver observer) {
+        mDatasourceObservable.unregisterObserver(observer);
+    }
+
+    private class LoadPageRunnable implements Runnable {
+
+        private final int mLoadGeneration;
+        private final int mPage;
+        private final int mPositionStart;
+        private final int mItemCount;
+
+        LoadPageRunnable(final int generation, final int page,
+                         final int positionStart, final int itemCount) {
+            mLoadGeneration = generation;
+            mPage = page;
+            mPositionStart = positionStart;
+            mItemCount = itemCount;
+        }
+
+        @WorkerThread
+        @Override
+        public void run() {
+            final List<? extends E> items;
+            try {
+                items = mPageLoader.loadPage(mPositionStart, mItemCount);
+            } catch (final RuntimeException e) {
+                // Rethrowing the exception would crash the app from the worker thread
+                mMainThreadHandler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        onPageLoadFailed(mLoadGeneration, mPage, mPositionStart, mItemCount, e);
+                    }
+
+                });
+                return;
+            }
+
+            mMainThreadHandler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    onPageLoaded(mLoadGeneration, mPage, mPositionStart, items);
+                }
+
+            });
+        }
+
+    }
+
+}
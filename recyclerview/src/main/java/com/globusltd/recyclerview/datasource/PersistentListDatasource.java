@@ -0,0 +1,395 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable datasource implementation whose modifications return new versions
+ * of the datasource that share unchanged data with the previous one.
+ * <p>
+ * Elements are stored in chunks at the leaves of a balanced tree, so modifications
+ * copy only the path from the root to the modified chunk and take O(log n) time and memory.
+ * It makes a diff-based swap cheap: the old and the new versions are alive at the same time
+ * without doubling memory, and {@link com.globusltd.recyclerview.diff.SimpleDatasourcesDiffCallback}
+ * skips chunks that are shared by both versions without comparing their elements.
+ * <pre>
+ * PersistentListDatasource&lt;Message&gt; messages = ...;
+ * adapter.swap(messages.add(message));
+ * </pre>
+ * Elements should be immutable, since chunks shared by both versions are considered unchanged.
+ *
+ * @param <E> Type of elements handled by datasource.
+ */
+public final class PersistentListDatasource<E> implements Datasource<E> {
+
+    /**
+     * Maximum number of elements in a chunk and children of a node.
+     */
+    private static final int MAX_CHILDREN = 32;
+
+    private static final Object[] EMPTY_CHUNK = new Object[0];
+
+    @NonNull
+    private final Node mRoot;
+
+    public PersistentListDatasource() {
+        this(Collections.<E>emptyList());
+    }
+
+    public PersistentListDatasource(@NonNull final List<? extends E> items) {
+        this(build(items));
+    }
+
+    private PersistentListDatasource(@NonNull final Node root) {
+        mRoot = root;
+    }
+
+    @NonNull
+    private static Node build(@NonNull final List<?> items) {
+        final int size = items.size();
+        if (size == 0) {
+            return new Leaf(EMPTY_CHUNK);
+        }
+
+        List<Node> nodes = new ArrayList<>((size + MAX_CHILDREN - 1) / MAX_CHILDREN);
+        for (int start = 0; start < size; start += MAX_CHILDREN) {
+            nodes.add(new Leaf(items.subList(start, Math.min(start + MAX_CHILDREN, size)).toArray()));
+        }
+        while (nodes.size() > 1) {
+            final int count = nodes.size();
+            final List<Node> parents = new ArrayList<>((count + MAX_CHILDREN - 1) / MAX_CHILDREN);
+            for (int start = 0; start < count; start += MAX_CHILDREN) {
+                final List<Node> children = nodes.subList(start, Math.min(start + MAX_CHILDREN, count));
+                parents.add(new Branch(children.toArray(new Node[children.size()])));
+            }
+            nodes = parents;
+        }
+        return nodes.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    @Override
+    public E get(@IntRange(from = 0) final int position) {
+        checkPosition(position, mRoot.mSize);
+        Node node = mRoot;
+        int index = position;
+        while (node instanceof Branch) {
+            final Node[] children = ((Branch) node).mChildren;
+            int child = 0;
+            while (index >= children[child].mSize) {
+                index -= children[child].mSize;
+                child++;
+            }
+            node = children[child];
+        }
+        return (E) ((Leaf) node).mItems[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return mRoot.mSize;
+    }
+
+    /**
+     * Returns a new version of the datasource with the element replaced at a given position.
+     *
+     * @param position an index in the data set.
+     * @param e        a data entity.
+     * @return the new version of the datasource.
+     */
+    @NonNull
+    public PersistentListDatasource<E> set(@IntRange(from = 0) final int position, @NonNull final E e) {
+        checkPosition(position, mRoot.mSize);
+        return new PersistentListDatasource<>(mRoot.set(position, e));
+    }
+
+    /**
+     * Returns a new version of the datasource with the element added to the end.
+     *
+     * @param e a data entity.
+     * @return the new version of the datasource.
+     */
+    @NonNull
+    public PersistentListDatasource<E> add(@NonNull final E e) {
+        return add(mRoot.mSize, e);
+    }
+
+    /**
+     * Returns a new version of the datasource with the element inserted at a given position.
+     *
+     * @param position an index in the data set.
+     * @param e        a data entity.
+     * @return the new version of the datasource.
+     */
+    @NonNull
+    public PersistentListDatasource<E> add(@IntRange(from = 0) final int position, @NonNull final E e) {
+        checkPosition(position, mRoot.mSize + 1);
+        final Node[] nodes = mRoot.add(position, e);
+        return new PersistentListDatasource<>(nodes.length == 1 ? nodes[0] : new Branch(nodes));
+    }
+
+    /**
+     * Returns a new version of the datasource with the element removed at a given position.
+     *
+     * @param position an index in the data set.
+     * @return the new version of the datasource.
+     */
+    @NonNull
+    public PersistentListDatasource<E> remove(@IntRange(from = 0) final int position) {
+        checkPosition(position, mRoot.mSize);
+        Node root = mRoot.remove(position);
+        if (root == null) {
+            root = new Leaf(EMPTY_CHUNK);
+        }
+        // Drop roots with a single child, so the tree doesn't get higher than needed
+        while (root instanceof Branch && ((Branch) root).mChildren.length == 1) {
+            root = ((Branch) root).mChildren[0];
+        }
+        return new PersistentListDatasource<>(root);
+    }
+
+    /**
+     * Returns chunks of elements in order. Chunks are shared between versions of
+     * the datasource and must not be modified.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    @NonNull
+    public Object[][] getChunks() {
+        final List<Object[]> chunks = new ArrayList<>(mRoot.mSize / MAX_CHILDREN + 1);
+        mRoot.collectChunks(chunks);
+        return chunks.toArray(new Object[chunks.size()][]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void registerDatasourceObserver(@NonNull final DatasourceObserver observer) {
+        // Do nothing, datasource is immutable
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregisterDatasourceObserver(@NonNull final DatasourceObserver observer) {
+        // Do nothing, datasource is immutable
+    }
+
+    private static void checkPosition(final int position, final int size) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Datasource has no element at position=" + position);
+        }
+    }
+
+    private static abstract class Node {
+
+        final int mSize;
+
+        Node(final int size) {
+            mSize = size;
+        }
+
+        @NonNull
+        abstract Node set(final int index, @NonNull final Object e);
+
+        /**
+         * Returns the modified node or two nodes if it has been split.
+         */
+        @NonNull
+        abstract Node[] add(final int index, @NonNull final Object e);
+
+        /**
+         * Returns the modified node or null if it has become empty.
+         */
+        @Nullable
+        abstract Node remove(final int index);
+
+        abstract void collectChunks(@NonNull final List<Object[]> chunks);
+
+    }
+
+    private static class Leaf extends Node {
+
+        @NonNull
+        final Object[] mItems;
+
+        Leaf(@NonNull final Object[] items) {
+            super(items.length);
+            mItems = items;
+        }
+
+        @NonNull
+        @Override
+        Node set(final int index, @NonNull final Object e) {
+            final Object[] items = mItems.clone();
+            items[index] = e;
+            return new Leaf(items);
+        }
+
+        @NonNull
+        @Override
+        Node[] add(final int index, @NonNull final Object e) {
+            final Object[] items = new Object[mItems.length + 1];
+            System.arraycopy(mItems, 0, items, 0, index);
+            items[index] = e;
+            System.arraycopy(mItems, index, items, index + 1, mItems.length - index);
+            if (items.length <= MAX_CHILDREN) {
+                return new Node[] { new Leaf(items) };
+            }
+
+            final int half = items.length / 2;
+            final Object[] left = new Object[half];
+            final Object[] right = new Object[items.length - half];
+            System.arraycopy(items, 0, left, 0, left.length);
+            System.arraycopy(items, half, right, 0, right.length);
+            return new Node[] { new Leaf(left), new Leaf(right) };
+        }
+
+        @Nullable
+        @Override
+        Node remove(final int index) {
+            if (mItems.length == 1) {
+                return null;
+            }
+
+            final Object[] items = new Object[mItems.length - 1];
+            System.arraycopy(mItems, 0, items, 0, index);
+            System.arraycopy(mItems, index + 1, items, index, items.length - index);
+            return new Leaf(items);
+        }
+
+        @Override
+        void collectChunks(@NonNull final List<Object[]> chunks) {
+            if (mItems.length > 0) {
+                chunks.add(mItems);
+            }
+        }
+
+    }
+
+    private static class Branch extends Node {
+
+        @NonNull
+        final Node[] mChildren;
+
+        Branch(@NonNull final Node[] children) {
+            super(sizeOf(children));
+            mChildren = children;
+        }
+
+        private static int sizeOf(@NonNull final Node[] children) {
+            int size = 0;
+            for (final Node child : children) {
+                size += child.mSize;
+            }
+            return size;
+        }
+
+        /**
+         * Returns the index of the child that contains the element at a given index.
+         * Index of the element inside the child is stored to the first entry of the array.
+         */
+        private int findChild(final int index, @NonNull final int[] childIndex) {
+            int child = 0;
+            int offset = index;
+            while (child < mChildren.length - 1 && offset >= mChildren[child].mSize) {
+                offset -= mChildren[child].mSize;
+                child++;
+            }
+            childIndex[0] = offset;
+            return child;
+        }
+
+        @NonNull
+        @Override
+        Node set(final int index, @NonNull final Object e) {
+            final int[] childIndex = new int[1];
+            final int child = findChild(index, childIndex);
+            final Node[] children = mChildren.clone();
+            children[child] = mChildren[child].set(childIndex[0], e);
+            return new Branch(children);
+        }
+
+        @NonNull
+        @Override
+        Node[] add(final int index, @NonNull final Object e) {
+            final int[] childIndex = new int[1];
+            final int child = findChild(index, childIndex);
+            final Node[] nodes = mChildren[child].add(childIndex[0], e);
+
+            final Node[] children = new Node[mChildren.length + nodes.length - 1];
+            System.arraycopy(mChildren, 0, children, 0, child);
+            System.arraycopy(nodes, 0, children, child, nodes.length);
+            System.arraycopy(mChildren, child + 1, children, child + nodes.length,
+                    mChildren.length - child - 1);
+            if (children.length <= MAX_CHILDREN) {
+                return new Node[] { new Branch(children) };
+            }
+
+            final int half = children.length / 2;
+            final Node[] left = new Node[half];
+            final Node[] right = new Node[children.length - half];
+            System.arraycopy(children, 0, left, 0, left.length);
+            System.arraycopy(children, half, right, 0, right.length);
+            return new Node[] { new Branch(left), new Branch(right) };
+        }
+
+        @Nullable
+        @Override
+        Node remove(final int index) {
+            final int[] childIndex = new int[1];
+            final int child = findChild(index, childIndex);
+            final Node node = mChildren[child].remove(childIndex[0]);
+            if (node != null) {
+                final Node[] children = mChildren.clone();
+                children[child] = node;
+                return new Branch(children);
+            } else if (mChildren.length == 1) {
+                return null;
+            } else {
+                final Node[] children = new Node[mChildren.length - 1];
+                System.arraycopy(mChildren, 0, children, 0, child);
+                System.arraycopy(mChildren, child + 1, children, child, children.length - child);
+                return new Branch(children);
+            }
+        }
+
+        @Override
+        void collectChunks(@NonNull final List<Object[]> chunks) {
+            for (final Node child : mChildren) {
+                child.collectChunks(chunks);
+            }
+        }
+
+    }
+
+}
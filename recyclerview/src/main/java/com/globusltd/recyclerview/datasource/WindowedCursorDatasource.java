@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import android.database.Cursor;
+import android.os.AsyncTask;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v4.util.LruCache;
+
+import java.io.Closeable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Datasource implementation that materializes {@link Cursor} rows into immutable
+ * objects and keeps them in a LRU cache.
+ * <p>
+ * Unlike {@link CursorDatasource}, the cursor is never exposed to the adapter. Rows
+ * ahead of the scroll direction are read on the background {@link Executor},
+ * so {@link #get(int)} usually returns a cached object without touching the cursor
+ * on the main thread. A row that has not been prefetched yet is read synchronously.
+ * <p>
+ * {@link WindowedCursorDatasource} owns the cursor, so make sure you close this
+ * datasource when you don't need its data anymore.
+ *
+ * @param <E> Type of the immutable row snapshots.
+ * @see CursorDatasource
+ */
+@MainThread
+public class WindowedCursorDatasource<E> implements Datasource<E>, Closeable {
+
+    private static final int DEFAULT_WINDOW_SIZE = 128;
+
+    /**
+     * Converts the current cursor row to the immutable object.
+     *
+     * @param <E> Type of the immutable row snapshots.
+     */
+    public interface RowMapper<E> {
+
+        /**
+         * Reads the row the cursor is currently positioned at. Called from both the main
+         * and the worker threads, so the returned object should not keep
+         * a reference to the cursor.
+         *
+         * @param cursor The cursor moved to the row that should be read.
+         * @return An immutable snapshot of the row.
+         */
+        @NonNull
+        E map(@NonNull final Cursor cursor);
+
+    }
+
+    @Nullable
+    private final Cursor mCursor;
+
+    @NonNull
+    private final RowMapper<E> mRowMapper;
+
+    @NonNull
+    private final Executor mExecutor;
+
+    @NonNull
+    private final LruCache<Integer, E> mRows;
+
+    @NonNull
+    private final Runnable mPrefetchRunnable;
+
+    @NonNull
+    private final AtomicBoolean mPrefetchScheduled;
+
+    private final int mSize;
+    private final int mPrefetchDistance;
+
+    private int mLastPosition = -1;
+
+    private volatile int mPrefetchStart;
+    private volatile int mPrefetchEnd;
+    private volatile int mPrefetchStep;
+    private volatile boolean mClosed;
+
+    public WindowedCursorDatasource(@Nullable final Cursor cursor,
+                                    @NonNull final RowMapper<E> rowMapper) {
+        this(cursor, rowMapper, DEFAULT_WINDOW_SIZE, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param cursor     The cursor to read rows from.
+     * @param rowMapper  Converts cursor rows to immutable objects.
+     * @param windowSize Maximum number of rows kept in memory. Half of the window
+     *                   is prefetched ahead of the scroll direction.
+     * @param executor   The executor to prefetch rows on.
+     */
+    public WindowedCursorDatasource(@Nullable final Cursor cursor,
+                                    @NonNull final RowMapper<E> rowMapper,
+                                    @IntRange(from = 2) final int windowSize,
+                                    @NonNull final Executor executor) {
+        mCursor = cursor;
+        mRowMapper = rowMapper;
+        mExecutor = executor;
+        mRows = new LruCache<>(windowSize);
+        mPrefetchRunnable = new PrefetchRunnable();
+        mPrefetchScheduled = new AtomicBoolean();
+        mSize = (cursor != null ? cursor.getCount() : 0);
+        mPrefetchDistance = windowSize / 2;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public E get(@IntRange(from = 0) final int position) {
+        if (mCursor == null || position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Datasource has no element at position=" + position);
+        }
+
+        E row = mRows.get(position);
+        if (row == null) {
+            row = readRow(position);
+            if (row == null) {
+                throw new IllegalStateException("Datasource is closed");
+            }
+        }
+
+        schedulePrefetch(position);
+        return row;
+    }
+
+    private void schedulePrefetch(final int position) {
+        final boolean forward = (position >= mLastPosition);
+        mLastPosition = position;
+        if (forward) {
+            mPrefetchStep = 1;
+            mPrefetchStart = position + 1;
+            mPrefetchEnd = Math.min(position + mPrefetchDistance, mSize - 1);
+        } else {
+            mPrefetchStep = -1;
+            mPrefetchStart = position - 1;
+            mPrefetchEnd = Math.max(position - mPrefetchDistance, 0);
+        }
+
+        if (mPrefetchScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(mPrefetchRunnable);
+        }
+    }
+
+    /**
+     * Reads the row at a given position and puts it into the cache.
+     *
+     * @return The row or null if datasource is closed.
+     */
+    @Nullable
+    private E readRow(final int position) {
+        final Cursor cursor = mCursor;
+        if (cursor == null) {
+            return null;
+        }
+
+        synchronized (cursor) {
+            if (mClosed) {
+                return null;
+            }
+
+            E row = mRows.get(position);
+            if (row == null && cursor.moveToPosition(position)) {
+                row = mRowMapper.map(cursor);
+                mRows.put(position, row);
+            }
+            return row;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        final Cursor cursor = mCursor;
+        if (cursor != null) {
+            synchronized (cursor) {
+                mClosed = true;
+                cursor.close();
+            }
+        }
+        mRows.evictAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void registerDatasourceObserver(@NonNull final DatasourceObserver observer) {
+        // Do nothing
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregisterDatasourceObserver(@NonNull final DatasourceObserver observer) {
+        // Do nothing
+    }
+
+    private class PrefetchRunnable implements Runnable {
+
+        @WorkerThread
+        @Override
+        public void run() {
+            int start;
+            int end;
+            do {
+                start = mPrefetchStart;
+                end = mPrefetchEnd;
+                prefetch(start, end, mPrefetchStep);
+                mPrefetchScheduled.set(false);
+
+                // Prefetch again if the window has been moved while we were busy
+            } while ((start != mPrefetchStart || end != mPrefetchEnd) &&
+                    !mClosed && mPrefetchScheduled.compareAndSet(false, true));
+        }
+
+        private void prefetch(final int start, final int end, final int step) {
+            for (int position = start; (step > 0 ? position <= end : position >= end);
+                 position += step) {
+                if (mClosed || start != mPrefetchStart) {
+                    // The window has been moved, start over from the new position
+                    return;
+                }
+                if (mRows.get(position) == null) {
+                    readRow(position);
+                }
+            }
+        }
+
+    }
+
+}
@@ -15,6 +15,9 @@
  */
 package com.globusltd.recyclerview.diff;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.util.DiffUtil.Callback;
 
 /**
@@ -31,5 +34,21 @@ public abstract class DiffCallback extends Callback {
     public boolean shouldDetectMoves() {
         return mShouldDetectMoves;
     }
-        
+
+    /**
+     * Calculates the diff between the old and the new lists. May be called on the worker thread.
+     * <p>
+     * Default implementation trims items that are the same at the beginning and at the end
+     * of the lists and uses {@link DiffUtil} that implements Myers's difference algorithm
+     * for the rest of them. Subclasses may override it to provide another diff strategy.
+     *
+     * @return The result of the diff calculation.
+     * @see KeyedDiffCallback
+     */
+    @WorkerThread
+    @NonNull
+    public DiffResult calculateDiff() {
+        return MyersDiff.calculateDiff(this);
+    }
+
 }
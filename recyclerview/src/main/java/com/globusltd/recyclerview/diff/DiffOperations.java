@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link DiffResult} that replays a list of recorded update operations.
+ * Operations are packed into an array, each of them takes three entries:
+ * type, position and either the number of items or the target position for moves.
+ */
+class DiffOperations implements DiffResult {
+
+    private static final int TYPE_INSERT = 1;
+    private static final int TYPE_REMOVE = 2;
+    private static final int TYPE_CHANGE = 3;
+    private static final int TYPE_MOVE = 4;
+
+    private static final int STRIDE = 3;
+
+    @NonNull
+    private final List<Object> mPayloads;
+
+    @NonNull
+    private int[] mOperations;
+
+    private int mSize;
+
+    DiffOperations() {
+        mPayloads = new ArrayList<>();
+        mOperations = new int[STRIDE * 16];
+    }
+
+    void addInsert(@IntRange(from = 0) final int position, @IntRange(from = 1) final int count) {
+        add(TYPE_INSERT, position, count);
+    }
+
+    void addRemove(@IntRange(from = 0) final int position, @IntRange(from = 1) final int count) {
+        add(TYPE_REMOVE, position, count);
+    }
+
+    void addMove(@IntRange(from = 0) final int fromPosition, @IntRange(from = 0) final int toPosition) {
+        add(TYPE_MOVE, fromPosition, toPosition);
+    }
+
+    void addChange(@IntRange(from = 0) final int position, @IntRange(from = 1) final int count,
+                   @Nullable final Object payload) {
+        add(TYPE_CHANGE, position, count);
+        mPayloads.add(payload);
+    }
+
+    private void add(final int type, final int position, final int value) {
+        if (mSize + STRIDE > mOperations.length) {
+            mOperations = Arrays.copyOf(mOperations, mOperations.length << 1);
+        }
+        mOperations[mSize++] = type;
+        mOperations[mSize++] = position;
+        mOperations[mSize++] = value;
+    }
+
+    /**
+     * Returns true if no operations have been recorded.
+     */
+    boolean isEmpty() {
+        return (mSize == 0);
+    }
+
+    @MainThread
+    @Override
+    public void dispatchUpdatesTo(@NonNull final ListUpdateCallback updateCallback) {
+        int payloadIndex = 0;
+        for (int i = 0; i < mSize; i += STRIDE) {
+            final int position = mOperations[i + 1];
+            final int value = mOperations[i + 2];
+            switch (mOperations[i]) {
+                case TYPE_INSERT:
+                    updateCallback.onInserted(position, value);
+                    break;
+
+                case TYPE_REMOVE:
+                    updateCallback.onRemoved(position, value);
+                    break;
+
+                case TYPE_CHANGE:
+                    updateCallback.onChanged(position, value, mPayloads.get(payloadIndex++));
+                    break;
+
+                case TYPE_MOVE:
+                    updateCallback.onMoved(position, value);
+                    break;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+
+/**
+ * The result of the diff calculation between two lists.
+ *
+ * @see DiffCallback#calculateDiff()
+ */
+public interface DiffResult {
+
+    /**
+     * Dispatches update operations that convert the old list into the new one
+     * to the given callback.
+     *
+     * @param updateCallback The callback to receive the update operations.
+     */
+    @MainThread
+    void dispatchUpdatesTo(@NonNull final ListUpdateCallback updateCallback);
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+/**
+ * Immutable change payload that describes which fields of the item have been changed.
+ * Fields are identified by numbers from 0 to 31 and are stored as bits of the mask.
+ * <p>
+ * Return it from {@link DiffCallback#getChangePayload(int, int)} and register
+ * {@link com.globusltd.recyclerview.PartialBinder}s for the fields in the adapter,
+ * so only views that display the changed fields are updated:
+ * <pre>
+ * static final int FIELD_NAME = 0;
+ * static final int FIELD_AVATAR = 1;
+ *
+ * public boolean areContentsTheSame(Person oldItem, Person newItem) {
+ *     return (getChangedFields(oldItem, newItem) == 0);
+ * }
+ *
+ * public Object getChangePayload(Person oldItem, Person newItem) {
+ *     return FieldChanges.of(getChangedFields(oldItem, newItem));
+ * }
+ *
+ * private int getChangedFields(Person oldItem, Person newItem) {
+ *     int fields = 0;
+ *     if (!oldItem.getName().equals(newItem.getName())) {
+ *         fields |= FieldChanges.maskOf(FIELD_NAME);
+ *     }
+ *     if (!oldItem.getAvatarUrl().equals(newItem.getAvatarUrl())) {
+ *         fields |= FieldChanges.maskOf(FIELD_AVATAR);
+ *     }
+ *     return fields;
+ * }
+ * </pre>
+ */
+public final class FieldChanges {
+
+    /**
+     * Instances for masks of the first fields are shared, so changes of the adjacent
+     * items can be merged into a single range by the reference equality of payloads.
+     */
+    private static final FieldChanges[] CACHE = new FieldChanges[256];
+
+    static {
+        for (int mask = 0; mask < CACHE.length; mask++) {
+            CACHE[mask] = new FieldChanges(mask);
+        }
+    }
+
+    private final int mMask;
+
+    private FieldChanges(final int mask) {
+        mMask = mask;
+    }
+
+    /**
+     * Returns the mask of a single field.
+     *
+     * @param field The number of the field.
+     * @return The mask with the bit of the field set.
+     */
+    public static int maskOf(@IntRange(from = 0, to = 31) final int field) {
+        if (field < 0 || field > 31) {
+            throw new IllegalArgumentException("Field should be in range [0, 31]");
+        }
+        return (1 << field);
+    }
+
+    /**
+     * Returns changes of the fields whose bits are set in the mask.
+     *
+     * @param mask The mask of the changed fields.
+     * @return The changes of the fields.
+     */
+    @NonNull
+    public static FieldChanges of(final int mask) {
+        return (mask >= 0 && mask < CACHE.length ? CACHE[mask] : new FieldChanges(mask));
+    }
+
+    /**
+     * Returns the mask of the changed fields.
+     */
+    public int getMask() {
+        return mMask;
+    }
+
+    /**
+     * Returns true if the field has been changed.
+     *
+     * @param field The number of the field.
+     */
+    public boolean contains(@IntRange(from = 0, to = 31) final int field) {
+        return ((mMask & maskOf(field)) != 0);
+    }
+
+    /**
+     * Returns true if no fields have been changed.
+     */
+    public boolean isEmpty() {
+        return (mMask == 0);
+    }
+
+    /**
+     * Returns the union of these and other changes.
+     *
+     * @param other Changes to merge with.
+     * @return Changes of the fields that have been changed in any of them.
+     */
+    @NonNull
+    public FieldChanges merge(@NonNull final FieldChanges other) {
+        return ((mMask | other.mMask) == mMask ? this : of(mMask | other.mMask));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return (this == o || (o instanceof FieldChanges && mMask == ((FieldChanges) o).mMask));
+    }
+
+    @Override
+    public int hashCode() {
+        return mMask;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldChanges{mask=" + Integer.toBinaryString(mMask) + "}";
+    }
+
+}
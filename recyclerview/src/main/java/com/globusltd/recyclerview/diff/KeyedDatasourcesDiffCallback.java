@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.globusltd.recyclerview.datasource.Datasource;
+
+/**
+ * {@link KeyedDiffCallback} that compares elements of two datasources. Elements are
+ * identified by ids returned by {@link #getItemId(Object)}, so two elements are
+ * the same item when their ids are equal.
+ * <p>
+ * Return it from {@link DiffCallbackFactory} to use {@link KeyedDiff} instead
+ * of Myers's difference algorithm:
+ * <pre>
+ * public DiffCallback createDiffCallback(Datasource&lt;? extends Person&gt; oldDatasource,
+ *                                        Datasource&lt;? extends Person&gt; newDatasource) {
+ *     return new KeyedDatasourcesDiffCallback&lt;Person&gt;(oldDatasource, newDatasource) {
+ *
+ *         public long getItemId(Person item) {
+ *             return item.getId();
+ *         }
+ *
+ *         public boolean areContentsTheSame(Person oldItem, Person newItem) {
+ *             return oldItem.getName().equals(newItem.getName());
+ *         }
+ *
+ *     };
+ * }
+ * </pre>
+ *
+ * @param <E> Type of elements handled by datasources.
+ */
+public abstract class KeyedDatasourcesDiffCallback<E> extends KeyedDiffCallback
+        implements ParameterizedDiffCallback<E> {
+
+    @NonNull
+    private final Datasource<? extends E> mOldDatasource;
+
+    @NonNull
+    private final Datasource<? extends E> mNewDatasource;
+
+    public KeyedDatasourcesDiffCallback(@NonNull final Datasource<? extends E> oldDatasource,
+                                        @NonNull final Datasource<? extends E> newDatasource) {
+        this(oldDatasource, newDatasource, true);
+    }
+
+    public KeyedDatasourcesDiffCallback(@NonNull final Datasource<? extends E> oldDatasource,
+                                        @NonNull final Datasource<? extends E> newDatasource,
+                                        final boolean shouldDetectMoves) {
+        super(shouldDetectMoves);
+        mOldDatasource = oldDatasource;
+        mNewDatasource = newDatasource;
+    }
+
+    /**
+     * Returns the stable id of the element. Elements with equal ids are the same item.
+     *
+     * @param item The element of the datasource.
+     * @return The stable id of the element.
+     */
+    public abstract long getItemId(@NonNull final E item);
+
+    @Override
+    public int getOldListSize() {
+        return mOldDatasource.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewDatasource.size();
+    }
+
+    @Override
+    public final long getOldItemId(final int oldItemPosition) {
+        return getItemId(mOldDatasource.get(oldItemPosition));
+    }
+
+    @Override
+    public final long getNewItemId(final int newItemPosition) {
+        return getItemId(mNewDatasource.get(newItemPosition));
+    }
+
+    @Override
+    public final boolean areItemsTheSame(@NonNull final E oldItem, @NonNull final E newItem) {
+        return (getItemId(oldItem) == getItemId(newItem));
+    }
+
+    @Override
+    public final boolean areContentsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return areContentsTheSame(mOldDatasource.get(oldItemPosition), mNewDatasource.get(newItemPosition));
+    }
+
+    @Nullable
+    @Override
+    public final Object getChangePayload(final int oldItemPosition, final int newItemPosition) {
+        return getChangePayload(mOldDatasource.get(oldItemPosition), mNewDatasource.get(newItemPosition));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Default implementation returns {@code null}.
+     */
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull final E oldItem, @NonNull final E newItem) {
+        return null;
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import java.util.Arrays;
+
+/**
+ * Calculates the diff between two lists whose items are identified by stable ids.
+ * <p>
+ * Items are matched by their ids using an open-addressing hash table, items with
+ * duplicated ids are matched in the order of their appearance. Matched items that
+ * form the longest increasing subsequence keep their places and the rest of them
+ * are moved (or removed and inserted again when move detection is disabled).
+ * Unlike Myers's difference algorithm, that takes O(N + D^2) time where D is the length
+ * of the edit script, the calculation takes O(N log N) time in the worst case and almost
+ * linear time when only a few items are moved.
+ *
+ * @see KeyedDiffCallback
+ */
+public final class KeyedDiff {
+
+    static final int NO_POSITION = -1;
+
+    private KeyedDiff() {
+    }
+
+    /**
+     * Calculates the list of update operations that can convert the old list into the new one.
+     *
+     * @param callback A callback that provides ids and compares contents of items.
+     * @return A result that contains the update operations.
+     */
+    @WorkerThread
+    @NonNull
+    public static DiffResult calculateDiff(@NonNull final KeyedDiffCallback callback) {
+        final int oldSize = callback.getOldListSize();
+        final int newSize = callback.getNewListSize();
+
+        final int[] oldToNew = new int[oldSize];
+        final int[] newToOld = new int[newSize];
+        matchItems(callback, oldToNew, newToOld);
+
+        final boolean[] stays = new boolean[newSize];
+        findStayingItems(newToOld, stays);
+        if (!callback.shouldDetectMoves()) {
+            // Moved items are removed from their old places and inserted into the new ones
+            for (int newPosition = 0; newPosition < newSize; newPosition++) {
+                final int oldPosition = newToOld[newPosition];
+                if (oldPosition != NO_POSITION && !stays[newPosition]) {
+                    oldToNew[oldPosition] = NO_POSITION;
+                    newToOld[newPosition] = NO_POSITION;
+                }
+            }
+        }
+
+        final DiffOperations operations = new DiffOperations();
+        addRemovals(oldToNew, operations);
+        addMoves(oldToNew, newToOld, stays, operations);
+        addInsertions(newToOld, operations);
+        addChanges(callback, newToOld, operations);
+        return operations;
+    }
+
+    /**
+     * Fills arrays that map old positions to new ones and vice versa,
+     * unmatched positions are set to {@link #NO_POSITION}.
+     */
+    private static void matchItems(@NonNull final KeyedDiffCallback callback,
+                                   @NonNull final int[] oldToNew, @NonNull final int[] newToOld) {
+        final int oldSize = oldToNew.length;
+        final int newSize = newToOld.length;
+        Arrays.fill(oldToNew, NO_POSITION);
+        Arrays.fill(newToOld, NO_POSITION);
+
+        // Each slot of the table contains an id and the first unmatched old position with that id
+        // plus one, the rest of the positions with the same id are chained in nextOldPositions.
+        // Zero marks an empty slot and -1 marks an id that has no unmatched positions left.
+        final int tableSize = Integer.highestOneBit(Math.max(oldSize, 2) - 1) << 2;
+        final int mask = tableSize - 1;
+        final long[] ids = new long[tableSize];
+        final int[] heads = new int[tableSize];
+        final int[] nextOldPositions = new int[oldSize];
+        for (int oldPosition = oldSize - 1; oldPosition >= 0; oldPosition--) {
+            final long id = callback.getOldItemId(oldPosition);
+            int slot = hash(id) & mask;
+            while (heads[slot] != 0 && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            nextOldPositions[oldPosition] = heads[slot] - 1;
+            heads[slot] = oldPosition + 1;
+        }
+
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            final long id = callback.getNewItemId(newPosition);
+            int slot = hash(id) & mask;
+            while (heads[slot] != 0 && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+
+            final int oldPosition = heads[slot] - 1;
+            if (oldPosition >= 0) {
+                oldToNew[oldPosition] = newPosition;
+                newToOld[newPosition] = oldPosition;
+                final int nextOldPosition = nextOldPositions[oldPosition];
+                heads[slot] = (nextOldPosition != NO_POSITION ? nextOldPosition + 1 : -1);
+            }
+        }
+    }
+
+    static int hash(final long value) {
+        final int h = (int) (value ^ (value >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16));
+    }
+
+    /**
+     * Marks matched items that form the longest increasing subsequence of old positions
+     * in the new list, these items don't need to be moved.
+     */
+    static void findStayingItems(@NonNull final int[] newToOld, @NonNull final boolean[] stays) {
+        final int newSize = newToOld.length;
+        final int[] tails = new int[newSize];
+        final int[] previous = new int[newSize];
+        int length = 0;
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            final int oldPosition = newToOld[newPosition];
+            if (oldPosition == NO_POSITION) {
+                continue;
+            }
+
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (newToOld[tails[middle]] < oldPosition) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[newPosition] = (low > 0 ? tails[low - 1] : NO_POSITION);
+            tails[low] = newPosition;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        int newPosition = (length > 0 ? tails[length - 1] : NO_POSITION);
+        while (newPosition != NO_POSITION) {
+            stays[newPosition] = true;
+            newPosition = previous[newPosition];
+        }
+    }
+
+    /**
+     * Removes unmatched items from the end of the old list, so positions
+     * of the items that have not been visited yet are not affected.
+     */
+    private static void addRemovals(@NonNull final int[] oldToNew, @NonNull final DiffOperations operations) {
+        int oldPosition = oldToNew.length - 1;
+        while (oldPosition >= 0) {
+            if (oldToNew[oldPosition] != NO_POSITION) {
+                oldPosition--;
+                continue;
+            }
+
+            final int end = oldPosition;
+            while (oldPosition >= 0 && oldToNew[oldPosition] == NO_POSITION) {
+                oldPosition--;
+            }
+            operations.addRemove(oldPosition + 1, end - oldPosition);
+        }
+    }
+
+    /**
+     * Moves items that are not part of the longest increasing subsequence.
+     * <p>
+     * Each old item occupies a slot on the line and each moved item gets a slot right
+     * after the staying item that precedes it in the new list, so the final order of slots
+     * matches the new list. Occupied slots are counted by the Fenwick tree, so the current
+     * position of a slot is the number of occupied slots before it.
+     */
+    private static void addMoves(@NonNull final int[] oldToNew, @NonNull final int[] newToOld,
+                                 @NonNull final boolean[] stays, @NonNull final DiffOperations operations) {
+        final int oldSize = oldToNew.length;
+        final int newSize = newToOld.length;
+
+        // Number of moved items anchored to each old position, the first entry
+        // is for items that precede all of the staying items
+        final int[] anchorCounts = new int[oldSize + 1];
+        final int[] anchors = new int[newSize];
+        int anchor = NO_POSITION;
+        int movesCount = 0;
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            final int oldPosition = newToOld[newPosition];
+            if (oldPosition == NO_POSITION) {
+                continue;
+            }
+
+            if (stays[newPosition]) {
+                anchor = oldPosition;
+            } else {
+                anchors[newPosition] = anchor;
+                anchorCounts[anchor + 1]++;
+                movesCount++;
+            }
+        }
+        if (movesCount == 0) {
+            return;
+        }
+
+        // Convert counts into the slots of the first items anchored to each old position
+        final int[] oldSlots = new int[oldSize];
+        int slot = 0;
+        for (int oldPosition = -1; oldPosition < oldSize; oldPosition++) {
+            if (oldPosition >= 0) {
+                oldSlots[oldPosition] = slot++;
+            }
+            final int count = anchorCounts[oldPosition + 1];
+            anchorCounts[oldPosition + 1] = slot;
+            slot += count;
+        }
+
+        final int[] tree = new int[slot + 1];
+        for (int oldPosition = 0; oldPosition < oldSize; oldPosition++) {
+            if (oldToNew[oldPosition] != NO_POSITION) {
+                increment(tree, oldSlots[oldPosition], 1);
+            }
+        }
+
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            final int oldPosition = newToOld[newPosition];
+            if (oldPosition == NO_POSITION || stays[newPosition]) {
+                continue;
+            }
+
+            final int fromSlot = oldSlots[oldPosition];
+            final int toSlot = anchorCounts[anchors[newPosition] + 1]++;
+            final int fromPosition = countBefore(tree, fromSlot);
+            increment(tree, fromSlot, -1);
+            final int toPosition = countBefore(tree, toSlot);
+            increment(tree, toSlot, 1);
+            if (fromPosition != toPosition) {
+                operations.addMove(fromPosition, toPosition);
+            }
+        }
+    }
+
+    private static void increment(@NonNull final int[] tree, final int slot, final int delta) {
+        for (int i = slot + 1; i < tree.length; i += (i & -i)) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int countBefore(@NonNull final int[] tree, final int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= (i & -i)) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Inserts unmatched items from the beginning of the new list,
+     * so items before the insertion point are already in their final places.
+     */
+    private static void addInsertions(@NonNull final int[] newToOld, @NonNull final DiffOperations operations) {
+        final int newSize = newToOld.length;
+        int newPosition = 0;
+        while (newPosition < newSize) {
+            if (newToOld[newPosition] != NO_POSITION) {
+                newPosition++;
+                continue;
+            }
+
+            final int start = newPosition;
+            while (newPosition < newSize && newToOld[newPosition] == NO_POSITION) {
+                newPosition++;
+            }
+            operations.addInsert(start, newPosition - start);
+        }
+    }
+
+    private static void addChanges(@NonNull final KeyedDiffCallback callback,
+                                   @NonNull final int[] newToOld, @NonNull final DiffOperations operations) {
+        final int newSize = newToOld.length;
+        int start = NO_POSITION;
+        Object startPayload = null;
+        for (int newPosition = 0; newPosition <= newSize; newPosition++) {
+            final int oldPosition = (newPosition < newSize ? newToOld[newPosition] : NO_POSITION);
+            final boolean changed = (oldPosition != NO_POSITION &&
+                    !callback.areContentsTheSame(oldPosition, newPosition));
+            final Object payload = (changed ? callback.getChangePayload(oldPosition, newPosition) : null);
+            if (start != NO_POSITION && (!changed || payload != startPayload)) {
+                operations.addChange(start, newPosition - start, startPayload);
+                start = NO_POSITION;
+            }
+            if (changed && start == NO_POSITION) {
+                start = newPosition;
+                startPayload = payload;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+/**
+ * A {@link DiffCallback} for lists whose items are identified by unique stable ids.
+ * <p>
+ * Instead of Myers's difference algorithm the diff is calculated by {@link KeyedDiff}
+ * that matches items by their ids using a hash table, so the calculation time grows
+ * almost linearly with the number of items regardless of the number of changes.
+ */
+public abstract class KeyedDiffCallback extends DiffCallback {
+
+    public KeyedDiffCallback() {
+        this(true);
+    }
+
+    public KeyedDiffCallback(final boolean shouldDetectMoves) {
+        super(shouldDetectMoves);
+    }
+
+    /**
+     * Returns the stable id of the item in the old list.
+     *
+     * @param oldItemPosition The position of the item in the old list.
+     * @return The stable id of the item.
+     */
+    public abstract long getOldItemId(final int oldItemPosition);
+
+    /**
+     * Returns the stable id of the item in the new list.
+     *
+     * @param newItemPosition The position of the item in the new list.
+     * @return The stable id of the item.
+     */
+    public abstract long getNewItemId(final int newItemPosition);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean areItemsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return (getOldItemId(oldItemPosition) == getNewItemId(newItemPosition));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public DiffResult calculateDiff() {
+        return KeyedDiff.calculateDiff(this);
+    }
+
+}
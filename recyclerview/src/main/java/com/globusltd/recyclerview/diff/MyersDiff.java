@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+
+/**
+ * Calculates the diff using Myers's difference algorithm provided by {@link DiffUtil}.
+ * <p>
+ * Items at the beginning and at the end of the lists that are the same are trimmed
+ * before the calculation, so only the differing window in the middle is passed to
+ * {@link DiffUtil}. When elements are just added to the head or to the tail of the list,
+ * the window is empty on one side and the diff is a single insertion or removal.
+ */
+final class MyersDiff {
+
+    private MyersDiff() {
+    }
+
+    @WorkerThread
+    @NonNull
+    static DiffResult calculateDiff(@NonNull final DiffCallback callback) {
+        final int oldSize = callback.getOldListSize();
+        final int newSize = callback.getNewListSize();
+        final int minSize = Math.min(oldSize, newSize);
+
+        int prefix = 0;
+        while (prefix < minSize && callback.areItemsTheSame(prefix, prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix &&
+                callback.areItemsTheSame(oldSize - suffix - 1, newSize - suffix - 1)) {
+            suffix++;
+        }
+
+        if (prefix == 0 && suffix == 0) {
+            return new MyersDiffResult(DiffUtil.calculateDiff(callback, callback.shouldDetectMoves()), 0);
+        }
+
+        final int oldWindowSize = oldSize - prefix - suffix;
+        final int newWindowSize = newSize - prefix - suffix;
+
+        // Prefix isn't affected by any other changes, so it goes first.
+        // Suffix changes are reported at their final positions after the window is updated.
+        final DiffOperations head = new DiffOperations();
+        addChanges(callback, 0, 0, prefix, head);
+        DiffResult window = null;
+        if (oldWindowSize == 0 && newWindowSize > 0) {
+            head.addInsert(prefix, newWindowSize);
+        } else if (newWindowSize == 0 && oldWindowSize > 0) {
+            head.addRemove(prefix, oldWindowSize);
+        } else if (oldWindowSize > 0) {
+            final WindowDiffCallback windowCallback = new WindowDiffCallback(callback,
+                    prefix, oldWindowSize, prefix, newWindowSize);
+            window = new MyersDiffResult(DiffUtil.calculateDiff(windowCallback,
+                    callback.shouldDetectMoves()), prefix);
+        }
+        final DiffOperations tail = new DiffOperations();
+        addChanges(callback, oldSize - suffix, newSize - suffix, suffix, tail);
+        return new TrimmedDiffResult(head, window, tail);
+    }
+
+    private static void addChanges(@NonNull final DiffCallback callback,
+                                   final int oldStart, final int newStart, final int count,
+                                   @NonNull final DiffOperations operations) {
+        int start = -1;
+        Object startPayload = null;
+        for (int i = 0; i <= count; i++) {
+            final boolean changed = (i < count &&
+                    !callback.areContentsTheSame(oldStart + i, newStart + i));
+            final Object payload = (changed ? callback.getChangePayload(oldStart + i, newStart + i) : null);
+            if (start != -1 && (!changed || payload != startPayload)) {
+                operations.addChange(newStart + start, i - start, startPayload);
+                start = -1;
+            }
+            if (changed && start == -1) {
+                start = i;
+                startPayload = payload;
+            }
+        }
+    }
+
+    private static class MyersDiffResult implements DiffResult {
+
+        @NonNull
+        private final DiffUtil.DiffResult mDiffResult;
+
+        private final int mOffset;
+
+        MyersDiffResult(@NonNull final DiffUtil.DiffResult diffResult, final int offset) {
+            mDiffResult = diffResult;
+            mOffset = offset;
+        }
+
+        @MainThread
+        @Override
+        public void dispatchUpdatesTo(@NonNull final ListUpdateCallback updateCallback) {
+            if (mOffset == 0) {
+                mDiffResult.dispatchUpdatesTo(updateCallback);
+            } else {
+                mDiffResult.dispatchUpdatesTo(new OffsetListUpdateCallback(updateCallback, mOffset));
+            }
+        }
+
+    }
+
+    private static class TrimmedDiffResult implements DiffResult {
+
+        @NonNull
+        private final DiffOperations mHead;
+
+        @Nullable
+        private final DiffResult mWindow;
+
+        @NonNull
+        private final DiffOperations mTail;
+
+        TrimmedDiffResult(@NonNull final DiffOperations head, @Nullable final DiffResult window,
+                          @NonNull final DiffOperations tail) {
+            mHead = head;
+            mWindow = window;
+            mTail = tail;
+        }
+
+        @MainThread
+        @Override
+        public void dispatchUpdatesTo(@NonNull final ListUpdateCallback updateCallback) {
+            mHead.dispatchUpdatesTo(updateCallback);
+            if (mWindow != null) {
+                mWindow.dispatchUpdatesTo(updateCallback);
+            }
+            mTail.dispatchUpdatesTo(updateCallback);
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+
+/**
+ * Shifts positions of the updates by a given offset, used to dispatch
+ * updates calculated for a window of the list.
+ */
+class OffsetListUpdateCallback implements ListUpdateCallback {
+
+    @NonNull
+    private final ListUpdateCallback mUpdateCallback;
+
+    private final int mOffset;
+
+    OffsetListUpdateCallback(@NonNull final ListUpdateCallback updateCallback, final int offset) {
+        mUpdateCallback = updateCallback;
+        mOffset = offset;
+    }
+
+    @Override
+    public void onInserted(final int position, final int count) {
+        mUpdateCallback.onInserted(position + mOffset, count);
+    }
+
+    @Override
+    public void onRemoved(final int position, final int count) {
+        mUpdateCallback.onRemoved(position + mOffset, count);
+    }
+
+    @Override
+    public void onMoved(final int fromPosition, final int toPosition) {
+        mUpdateCallback.onMoved(fromPosition + mOffset, toPosition + mOffset);
+    }
+
+    @Override
+    public void onChanged(final int position, final int count, final Object payload) {
+        mUpdateCallback.onChanged(position + mOffset, count, payload);
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Splits lists into chunks at anchor items and diffs chunks concurrently.
+ *
+ * @see ParallelDiffCallback
+ */
+final class ParallelDiff {
+
+    private static final int NO_POSITION = KeyedDiff.NO_POSITION;
+
+    /**
+     * Marks an id that occurs more than once in the old list.
+     */
+    private static final int DUPLICATE = -1;
+
+    private ParallelDiff() {
+    }
+
+    @WorkerThread
+    @NonNull
+    static DiffResult calculateDiff(@NonNull final KeyedDiffCallback callback,
+                                    @NonNull final Executor executor,
+                                    final int parallelism, final int chunkSize) {
+        final int oldSize = callback.getOldListSize();
+        final int newSize = callback.getNewListSize();
+        if (parallelism < 2 || Math.min(oldSize, newSize) < 2 * chunkSize) {
+            return MyersDiff.calculateDiff(callback);
+        }
+
+        final int[] newToOld = matchUniqueItems(callback, oldSize, newSize);
+        final boolean[] stays = new boolean[newSize];
+        KeyedDiff.findStayingItems(newToOld, stays);
+
+        // Pick items that keep their order in both lists as anchors at least chunkSize apart
+        final int maxAnchors = newSize / chunkSize;
+        final int[] oldAnchors = new int[maxAnchors];
+        final int[] newAnchors = new int[maxAnchors];
+        int anchorsCount = 0;
+        int lastAnchor = -1;
+        for (int newPosition = chunkSize; newPosition < newSize - 1 && anchorsCount < maxAnchors;
+             newPosition++) {
+            if (stays[newPosition] && newPosition - lastAnchor > chunkSize) {
+                oldAnchors[anchorsCount] = newToOld[newPosition];
+                newAnchors[anchorsCount] = newPosition;
+                anchorsCount++;
+                lastAnchor = newPosition;
+            }
+        }
+        if (anchorsCount == 0) {
+            return MyersDiff.calculateDiff(callback);
+        }
+
+        final ChunkedDiffResult result = new ChunkedDiffResult(callback, oldSize, newSize,
+                oldAnchors, newAnchors, anchorsCount);
+        result.calculate(executor, parallelism);
+        return result;
+    }
+
+    /**
+     * Returns old positions of new items whose ids are unique in both lists.
+     */
+    @NonNull
+    private static int[] matchUniqueItems(@NonNull final KeyedDiffCallback callback,
+                                          final int oldSize, final int newSize) {
+        final int tableSize = Integer.highestOneBit(Math.max(oldSize, 2) - 1) << 2;
+        final int mask = tableSize - 1;
+        final long[] ids = new long[tableSize];
+        // Old position plus one, zero marks an empty slot
+        final int[] oldPositions = new int[tableSize];
+        final int[] newCounts = new int[tableSize];
+        for (int oldPosition = 0; oldPosition < oldSize; oldPosition++) {
+            final long id = callback.getOldItemId(oldPosition);
+            int slot = KeyedDiff.hash(id) & mask;
+            while (oldPositions[slot] != 0 && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            oldPositions[slot] = (oldPositions[slot] == 0 ? oldPosition + 1 : DUPLICATE);
+        }
+
+        final int[] newSlots = new int[newSize];
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            final long id = callback.getNewItemId(newPosition);
+            int slot = KeyedDiff.hash(id) & mask;
+            while (oldPositions[slot] != 0 && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (oldPositions[slot] != 0) {
+                newCounts[slot]++;
+                newSlots[newPosition] = slot;
+            } else {
+                newSlots[newPosition] = NO_POSITION;
+            }
+        }
+
+        final int[] newToOld = new int[newSize];
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            final int slot = newSlots[newPosition];
+            newToOld[newPosition] = (slot != NO_POSITION && oldPositions[slot] > 0 &&
+                    newCounts[slot] == 1 ? oldPositions[slot] - 1 : NO_POSITION);
+        }
+        return newToOld;
+    }
+
+    /**
+     * Diffs of chunks between anchors and changes of anchors themselves. Chunk k spans
+     * from the item after the anchor k - 1 up to the anchor k exclusive.
+     */
+    private static class ChunkedDiffResult implements DiffResult {
+
+        @NonNull
+        private final KeyedDiffCallback mCallback;
+
+        private final int mOldSize;
+        private final int mNewSize;
+
+        @NonNull
+        private final int[] mOldAnchors;
+
+        @NonNull
+        private final int[] mNewAnchors;
+
+        private final int mAnchorsCount;
+
+        @NonNull
+        private final DiffResult[] mChunkResults;
+
+        @NonNull
+        private final boolean[] mAnchorsChanged;
+
+        @NonNull
+        private final Object[] mAnchorPayloads;
+
+        ChunkedDiffResult(@NonNull final KeyedDiffCallback callback,
+                          final int oldSize, final int newSize,
+                          @NonNull final int[] oldAnchors, @NonNull final int[] newAnchors,
+                          final int anchorsCount) {
+            mCallback = callback;
+            mOldSize = oldSize;
+            mNewSize = newSize;
+            mOldAnchors = oldAnchors;
+            mNewAnchors = newAnchors;
+            mAnchorsCount = anchorsCount;
+            mChunkResults = new DiffResult[anchorsCount + 1];
+            mAnchorsChanged = new boolean[anchorsCount];
+            mAnchorPayloads = new Object[anchorsCount];
+        }
+
+        private int getNewStart(final int chunk) {
+            return (chunk > 0 ? mNewAnchors[chunk - 1] + 1 : 0);
+        }
+
+        private void calculateChunk(final int chunk) {
+            final int oldStart = (chunk > 0 ? mOldAnchors[chunk - 1] + 1 : 0);
+            final int oldEnd = (chunk < mAnchorsCount ? mOldAnchors[chunk] : mOldSize);
+            final int newStart = getNewStart(chunk);
+            final int newEnd = (chunk < mAnchorsCount ? mNewAnchors[chunk] : mNewSize);
+            mChunkResults[chunk] = MyersDiff.calculateDiff(new WindowDiffCallback(mCallback,
+                    oldStart, oldEnd - oldStart, newStart, newEnd - newStart));
+
+            if (chunk < mAnchorsCount && !mCallback.areContentsTheSame(oldEnd, newEnd)) {
+                mAnchorsChanged[chunk] = true;
+                mAnchorPayloads[chunk] = mCallback.getChangePayload(oldEnd, newEnd);
+            }
+        }
+
+        /**
+         * Diffs chunks on the executor and on the calling thread. Workers take chunks
+         * one by one, so the calling thread never waits for a task that has not been
+         * started yet and the executor may be the one that runs the calling thread.
+         */
+        void calculate(@NonNull final Executor executor, final int parallelism) {
+            final int chunksCount = mAnchorsCount + 1;
+            final AtomicInteger nextChunk = new AtomicInteger();
+            final CountDownLatch completion = new CountDownLatch(chunksCount);
+            final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+            final Runnable worker = new Runnable() {
+
+                @Override
+                public void run() {
+                    int chunk;
+                    while ((chunk = nextChunk.getAndIncrement()) < chunksCount) {
+                        try {
+                            if (failure.get() == null) {
+                                calculateChunk(chunk);
+                            }
+                        } catch (final RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            completion.countDown();
+                        }
+                    }
+                }
+
+            };
+
+            final int workersCount = Math.min(parallelism, chunksCount) - 1;
+            for (int i = 0; i < workersCount; i++) {
+                executor.execute(worker);
+            }
+            worker.run();
+
+            boolean interrupted = false;
+            while (completion.getCount() > 0) {
+                try {
+                    completion.await();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            final RuntimeException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        @MainThread
+        @Override
+        public void dispatchUpdatesTo(@NonNull final ListUpdateCallback updateCallback) {
+            // Chunks before the current one have been already converted to the new list,
+            // so the current chunk starts at its position in the new list
+            for (int chunk = 0; chunk <= mAnchorsCount; chunk++) {
+                mChunkResults[chunk].dispatchUpdatesTo(
+                        new OffsetListUpdateCallback(updateCallback, getNewStart(chunk)));
+                if (chunk < mAnchorsCount && mAnchorsChanged[chunk]) {
+                    updateCallback.onChanged(mNewAnchors[chunk], 1, mAnchorPayloads[chunk]);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.os.AsyncTask;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link DiffCallback} that calculates the diff of very large lists in parallel.
+ * <p>
+ * Lists are split into chunks at anchor items: items with unique stable ids that keep their
+ * relative order in both lists. Chunks between anchors are independent, so they are diffed
+ * concurrently by Myers's difference algorithm on the {@link Executor} and the results
+ * are stitched into a single stream of updates. Items moved across anchors are reported
+ * as removed and inserted again.
+ * <p>
+ * Return it from {@link DiffCallbackFactory} wrapping a {@link KeyedDiffCallback}
+ * that provides stable ids:
+ * <pre>
+ * public DiffCallback createDiffCallback(Datasource&lt;? extends Person&gt; oldDatasource,
+ *                                        Datasource&lt;? extends Person&gt; newDatasource) {
+ *     return new ParallelDiffCallback(new PersonDiffCallback(oldDatasource, newDatasource));
+ * }
+ * </pre>
+ * Methods of the wrapped callback are called from several threads at the same time,
+ * so both datasources should support concurrent reads.
+ */
+public class ParallelDiffCallback extends DiffCallback {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    @NonNull
+    private final KeyedDiffCallback mCallback;
+
+    @NonNull
+    private final Executor mExecutor;
+
+    private final int mParallelism;
+    private final int mChunkSize;
+
+    public ParallelDiffCallback(@NonNull final KeyedDiffCallback callback) {
+        this(callback, AsyncTask.THREAD_POOL_EXECUTOR,
+                Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param callback    The callback that provides stable ids and compares items.
+     * @param executor    The executor to diff chunks on.
+     * @param parallelism Maximum number of threads that diff chunks at the same time,
+     *                    including the thread that calls {@link #calculateDiff()}.
+     * @param chunkSize   Minimum number of items in a single chunk.
+     */
+    public ParallelDiffCallback(@NonNull final KeyedDiffCallback callback,
+                                @NonNull final Executor executor,
+                                @IntRange(from = 1) final int parallelism,
+                                @IntRange(from = 1) final int chunkSize) {
+        super(callback.shouldDetectMoves());
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+        mCallback = callback;
+        mExecutor = executor;
+        mParallelism = parallelism;
+        mChunkSize = chunkSize;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mCallback.getOldListSize();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mCallback.getNewListSize();
+    }
+
+    @Override
+    public boolean areItemsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return mCallback.areItemsTheSame(oldItemPosition, newItemPosition);
+    }
+
+    @Override
+    public boolean areContentsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return mCallback.areContentsTheSame(oldItemPosition, newItemPosition);
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(final int oldItemPosition, final int newItemPosition) {
+        return mCallback.getChangePayload(oldItemPosition, newItemPosition);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public DiffResult calculateDiff() {
+        return ParallelDiff.calculateDiff(mCallback, mExecutor, mParallelism, mChunkSize);
+    }
+
+}
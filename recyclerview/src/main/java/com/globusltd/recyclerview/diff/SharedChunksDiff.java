@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v7.util.ListUpdateCallback;
+
+import com.globusltd.recyclerview.datasource.PersistentListDatasource;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Calculates the diff between two versions of {@link PersistentListDatasource}.
+ * <p>
+ * Chunks of elements shared by both versions are matched by reference and skipped
+ * without comparing their elements, only windows between shared chunks are diffed
+ * by Myers's difference algorithm.
+ */
+final class SharedChunksDiff {
+
+    private SharedChunksDiff() {
+    }
+
+    @WorkerThread
+    @NonNull
+    static DiffResult calculateDiff(@NonNull final DiffCallback callback,
+                                    @NonNull final PersistentListDatasource<?> oldDatasource,
+                                    @NonNull final PersistentListDatasource<?> newDatasource) {
+        final Object[][] oldChunks = oldDatasource.getChunks();
+        final Object[][] newChunks = newDatasource.getChunks();
+
+        final Map<Object[], Integer> oldChunkIndexes = new IdentityHashMap<>(oldChunks.length);
+        for (int i = 0; i < oldChunks.length; i++) {
+            oldChunkIndexes.put(oldChunks[i], i);
+        }
+
+        // Shared chunks that keep their order in both versions are the longest increasing
+        // subsequence of their old indexes, so a single chunk moved far away doesn't make
+        // the chunks it has jumped over be diffed element by element
+        final int[] newToOldChunks = new int[newChunks.length];
+        for (int i = 0; i < newChunks.length; i++) {
+            final Integer oldChunk = oldChunkIndexes.get(newChunks[i]);
+            newToOldChunks[i] = (oldChunk != null ? oldChunk : KeyedDiff.NO_POSITION);
+        }
+        final boolean[] anchors = new boolean[newChunks.length];
+        KeyedDiff.findStayingItems(newToOldChunks, anchors);
+
+        // Windows are separated by the anchor chunks
+        final int maxWindows = newChunks.length + 1;
+        final int[] newStarts = new int[maxWindows];
+        final DiffResult[] results = new DiffResult[maxWindows];
+        int windowsCount = 0;
+        int oldStart = 0;
+        int newStart = 0;
+        int oldPosition = 0;
+        int newPosition = 0;
+        int nextOldChunk = 0;
+        for (int i = 0; i < newChunks.length; i++) {
+            final Object[] chunk = newChunks[i];
+            if (anchors[i]) {
+                final int oldChunk = newToOldChunks[i];
+                while (nextOldChunk < oldChunk) {
+                    oldPosition += oldChunks[nextOldChunk++].length;
+                }
+                if (oldPosition > oldStart || newPosition > newStart) {
+                    newStarts[windowsCount] = newStart;
+                    results[windowsCount++] = calculateWindowDiff(callback,
+                            oldStart, oldPosition, newStart, newPosition);
+                }
+
+                oldPosition += oldChunks[nextOldChunk++].length;
+                oldStart = oldPosition;
+                newStart = newPosition + chunk.length;
+            }
+            newPosition += chunk.length;
+        }
+
+        final int oldSize = oldDatasource.size();
+        if (oldSize > oldStart || newPosition > newStart) {
+            newStarts[windowsCount] = newStart;
+            results[windowsCount++] = calculateWindowDiff(callback,
+                    oldStart, oldSize, newStart, newPosition);
+        }
+        return new WindowsDiffResult(newStarts, results, windowsCount);
+    }
+
+    @NonNull
+    private static DiffResult calculateWindowDiff(@NonNull final DiffCallback callback,
+                                                  final int oldStart, final int oldEnd,
+                                                  final int newStart, final int newEnd) {
+        return MyersDiff.calculateDiff(new WindowDiffCallback(callback,
+                oldStart, oldEnd - oldStart, newStart, newEnd - newStart));
+    }
+
+    private static class WindowsDiffResult implements DiffResult {
+
+        @NonNull
+        private final int[] mNewStarts;
+
+        @NonNull
+        private final DiffResult[] mResults;
+
+        private final int mCount;
+
+        WindowsDiffResult(@NonNull final int[] newStarts, @NonNull final DiffResult[] results,
+                          final int count) {
+            mNewStarts = newStarts;
+            mResults = results;
+            mCount = count;
+        }
+
+        @MainThread
+        @Override
+        public void dispatchUpdatesTo(@NonNull final ListUpdateCallback updateCallback) {
+            // Windows before the current one have been already converted to the new list
+            for (int i = 0; i < mCount; i++) {
+                mResults[i].dispatchUpdatesTo(new OffsetListUpdateCallback(updateCallback, mNewStarts[i]));
+            }
+        }
+
+    }
+
+}
@@ -17,8 +17,10 @@ package com.globusltd.recyclerview.diff;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
 
 import com.globusltd.recyclerview.datasource.Datasource;
+import com.globusltd.recyclerview.datasource.PersistentListDatasource;
 
 /**
  * A callback class used by DiffUtil while calculating the diff between two {@link Datasource}s.
@@ -47,6 +49,25 @@ public abstract class SimpleDatasourcesDiffCallback<E> extends DiffCallback
         mNewDatasource = newDatasource;
     }
     
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When both datasources are versions of {@link PersistentListDatasource},
+     * chunks of elements shared by them are skipped without comparing elements.
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public DiffResult calculateDiff() {
+        if (mOldDatasource instanceof PersistentListDatasource &&
+                mNewDatasource instanceof PersistentListDatasource) {
+            return SharedChunksDiff.calculateDiff(this,
+                    (PersistentListDatasource<?>) mOldDatasource,
+                    (PersistentListDatasource<?>) mNewDatasource);
+        }
+        return super.calculateDiff();
+    }
+    
     @Override
     public int getOldListSize() {
         return mOldDatasource.size();
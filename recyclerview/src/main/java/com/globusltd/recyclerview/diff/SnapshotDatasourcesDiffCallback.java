@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.globusltd.recyclerview.datasource.Datasource;
+
+/**
+ * A callback class used by DiffUtil while calculating the diff between two {@link Datasource}s
+ * that reads each element only once.
+ * <p>
+ * Unlike {@link SimpleDatasourcesDiffCallback}, that calls {@link Datasource#get(int)} for both
+ * elements on every comparison, this callback takes a snapshot of both datasources before the
+ * diff is calculated: ids of elements are stored as <code>long[]</code> and hashes of their
+ * contents as <code>int[]</code>, so comparisons don't touch datasources at all. Elements are read
+ * again only to create change payloads. It makes a big difference for datasources with expensive
+ * {@link Datasource#get(int)}, e.g. {@link com.globusltd.recyclerview.datasource.CursorDatasource}.
+ * <p>
+ * Contents are compared by hashes only, so make sure that different visual representations
+ * of the element produce different hashes.
+ *
+ * @param <E> type of entity in the datasource.
+ */
+public abstract class SnapshotDatasourcesDiffCallback<E> extends DiffCallback {
+
+    @NonNull
+    private final Datasource<? extends E> mOldDatasource;
+
+    @NonNull
+    private final Datasource<? extends E> mNewDatasource;
+
+    @Nullable
+    private long[] mOldIds;
+
+    @Nullable
+    private int[] mOldContentHashes;
+
+    @Nullable
+    private long[] mNewIds;
+
+    @Nullable
+    private int[] mNewContentHashes;
+
+    public SnapshotDatasourcesDiffCallback(@NonNull final Datasource<? extends E> oldDatasource,
+                                           @NonNull final Datasource<? extends E> newDatasource) {
+        this(oldDatasource, newDatasource, true);
+    }
+
+    public SnapshotDatasourcesDiffCallback(@NonNull final Datasource<? extends E> oldDatasource,
+                                           @NonNull final Datasource<? extends E> newDatasource,
+                                           final boolean shouldDetectMoves) {
+        super(shouldDetectMoves);
+        mOldDatasource = oldDatasource;
+        mNewDatasource = newDatasource;
+    }
+
+    /**
+     * Returns the stable id of the element. Elements with equal ids represent the same item.
+     *
+     * @param item The element of the datasource.
+     * @return The stable id of the element.
+     */
+    public abstract long getItemId(@NonNull final E item);
+
+    /**
+     * Returns the hash of the element contents. Elements that represent the same item
+     * and have equal hashes are considered to have the same contents.
+     *
+     * @param item The element of the datasource.
+     * @return The hash of the element contents.
+     */
+    public abstract int getContentHash(@NonNull final E item);
+
+    /**
+     * When elements have equal ids and different content hashes, DiffUtil
+     * calls this method to get a payload about the change.
+     * <p>
+     * Default implementation returns {@code null}.
+     *
+     * @param oldItem The item in the old datasource.
+     * @param newItem The item in the new datasource.
+     * @return A payload object that represents the change between the two datasources.
+     */
+    @Nullable
+    public Object getChangePayload(@NonNull final E oldItem, @NonNull final E newItem) {
+        return null;
+    }
+
+    /**
+     * Reads ids and content hashes of all elements if it hasn't been done yet.
+     */
+    private void ensureSnapshot() {
+        if (mOldIds == null) {
+            final int oldSize = mOldDatasource.size();
+            final long[] oldIds = new long[oldSize];
+            mOldContentHashes = new int[oldSize];
+            for (int i = 0; i < oldSize; i++) {
+                final E item = mOldDatasource.get(i);
+                oldIds[i] = getItemId(item);
+                mOldContentHashes[i] = getContentHash(item);
+            }
+
+            final int newSize = mNewDatasource.size();
+            mNewIds = new long[newSize];
+            mNewContentHashes = new int[newSize];
+            for (int i = 0; i < newSize; i++) {
+                final E item = mNewDatasource.get(i);
+                mNewIds[i] = getItemId(item);
+                mNewContentHashes[i] = getContentHash(item);
+            }
+            mOldIds = oldIds;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public DiffResult calculateDiff() {
+        ensureSnapshot();
+        return super.calculateDiff();
+    }
+
+    @Override
+    public int getOldListSize() {
+        ensureSnapshot();
+        return mOldIds.length;
+    }
+
+    @Override
+    public int getNewListSize() {
+        ensureSnapshot();
+        return mNewIds.length;
+    }
+
+    @Override
+    public final boolean areItemsTheSame(final int oldItemPosition, final int newItemPosition) {
+        ensureSnapshot();
+        return (mOldIds[oldItemPosition] == mNewIds[newItemPosition]);
+    }
+
+    @Override
+    public final boolean areContentsTheSame(final int oldItemPosition, final int newItemPosition) {
+        ensureSnapshot();
+        return (mOldContentHashes[oldItemPosition] == mNewContentHashes[newItemPosition]);
+    }
+
+    @Nullable
+    @Override
+    public final Object getChangePayload(final int oldItemPosition, final int newItemPosition) {
+        return getChangePayload(mOldDatasource.get(oldItemPosition), mNewDatasource.get(newItemPosition));
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Exposes windows of the old and the new lists as separate lists.
+ */
+class WindowDiffCallback extends DiffCallback {
+
+    @NonNull
+    private final DiffCallback mCallback;
+
+    private final int mOldStart;
+    private final int mOldSize;
+    private final int mNewStart;
+    private final int mNewSize;
+
+    WindowDiffCallback(@NonNull final DiffCallback callback,
+                       final int oldStart, final int oldSize,
+                       final int newStart, final int newSize) {
+        super(callback.shouldDetectMoves());
+        mCallback = callback;
+        mOldStart = oldStart;
+        mOldSize = oldSize;
+        mNewStart = newStart;
+        mNewSize = newSize;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldSize;
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewSize;
+    }
+
+    @Override
+    public boolean areItemsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return mCallback.areItemsTheSame(oldItemPosition + mOldStart, newItemPosition + mNewStart);
+    }
+
+    @Override
+    public boolean areContentsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return mCallback.areContentsTheSame(oldItemPosition + mOldStart, newItemPosition + mNewStart);
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(final int oldItemPosition, final int newItemPosition) {
+        return mCallback.getChangePayload(oldItemPosition + mOldStart, newItemPosition + mNewStart);
+    }
+
+}
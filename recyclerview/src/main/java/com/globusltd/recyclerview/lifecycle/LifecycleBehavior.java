@@ -65,8 +65,7 @@ public class LifecycleBehavior implements ViewHolderObserver {
     public void onChanged(@NonNull final RecyclerView.ViewHolder viewHolder) {
         if (isLifecycleCallbacks(viewHolder)) {
             final LifecycleCallbacks lifecycleCallbacks = (LifecycleCallbacks) viewHolder;
-            mLifecycleComposite.unregisterLifecycleCallbacks(lifecycleCallbacks);
-            mLifecycleComposite.registerLifecycleCallbacks(lifecycleCallbacks);
+            mLifecycleComposite.rebindLifecycleCallbacks(lifecycleCallbacks);
         }
     }
 
@@ -21,12 +21,16 @@ import android.support.annotation.NonNull;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * {@link LifecycleComposite} provides lifecycle events to
  * the registered {@link LifecycleCallbacks} objects.
+ * <p>
+ * Callbacks are identified by reference and kept in registration order together with
+ * their lifecycle states in plain arrays, so registration and dispatching don't
+ * allocate memory. Lookups are linear that is fast for the number of
+ * view holders attached to RecyclerView at once.
  */
 @MainThread
 public class LifecycleComposite implements LifecycleCallbacks {
@@ -35,6 +39,8 @@ public class LifecycleComposite implements LifecycleCallbacks {
     private static final int STARTED = 1;
     private static final int RESUMED = 1 << 1;
 
+    private static final int DEFAULT_CAPACITY = 16;
+
     @IntDef(value = { NONE, STARTED, RESUMED }, flag = true)
     @Retention(RetentionPolicy.SOURCE)
     private @interface LifecycleState {
@@ -44,10 +50,16 @@ public class LifecycleComposite implements LifecycleCallbacks {
     private int mLifecycleState = NONE;
 
     @NonNull
-    private final Map<LifecycleCallbacks, Integer> mLifecycleCallbacks;
+    private LifecycleCallbacks[] mLifecycleCallbacks;
+
+    @NonNull
+    private int[] mLifecycleStates;
+
+    private int mSize;
 
     public LifecycleComposite() {
-        mLifecycleCallbacks = new LinkedHashMap<>();
+        mLifecycleCallbacks = new LifecycleCallbacks[DEFAULT_CAPACITY];
+        mLifecycleStates = new int[DEFAULT_CAPACITY];
     }
 
     /**
@@ -63,17 +75,16 @@ public class LifecycleComposite implements LifecycleCallbacks {
      * @param lifecycleCallbacks The interface to call.
      */
     public void registerLifecycleCallbacks(@NonNull final LifecycleCallbacks lifecycleCallbacks) {
-        if (!mLifecycleCallbacks.containsKey(lifecycleCallbacks)) {
-            @LifecycleState int lifecycleState = NONE;
-            if ((mLifecycleState & STARTED) == STARTED) {
-                lifecycleCallbacks.onStart();
-                lifecycleState |= STARTED;
-            }
-            if ((mLifecycleState & RESUMED) == RESUMED) {
-                lifecycleCallbacks.onResume();
-                lifecycleState |= RESUMED;
+        if (indexOf(lifecycleCallbacks) < 0) {
+            if (mSize == mLifecycleCallbacks.length) {
+                final int capacity = mSize << 1;
+                mLifecycleCallbacks = Arrays.copyOf(mLifecycleCallbacks, capacity);
+                mLifecycleStates = Arrays.copyOf(mLifecycleStates, capacity);
             }
-            mLifecycleCallbacks.put(lifecycleCallbacks, lifecycleState);
+            final int index = mSize++;
+            mLifecycleCallbacks[index] = lifecycleCallbacks;
+            mLifecycleStates[index] = NONE;
+            moveToState(index, mLifecycleState);
         }
     }
 
@@ -82,8 +93,16 @@ public class LifecycleComposite implements LifecycleCallbacks {
      * with {@link #registerLifecycleCallbacks(LifecycleCallbacks)}.
      */
     public void unregisterLifecycleCallbacks(@NonNull final LifecycleCallbacks lifecycleCallbacks) {
-        if (mLifecycleCallbacks.containsKey(lifecycleCallbacks)) {
-            @LifecycleState final int lifecycleState = mLifecycleCallbacks.remove(lifecycleCallbacks);
+        final int index = indexOf(lifecycleCallbacks);
+        if (index >= 0) {
+            @LifecycleState final int lifecycleState = mLifecycleStates[index];
+            final int moved = mSize - index - 1;
+            if (moved > 0) {
+                System.arraycopy(mLifecycleCallbacks, index + 1, mLifecycleCallbacks, index, moved);
+                System.arraycopy(mLifecycleStates, index + 1, mLifecycleStates, index, moved);
+            }
+            mLifecycleCallbacks[--mSize] = null;
+
             if ((lifecycleState & RESUMED) == RESUMED) {
                 lifecycleCallbacks.onPause();
             }
@@ -93,21 +112,73 @@ public class LifecycleComposite implements LifecycleCallbacks {
         }
     }
 
+    /**
+     * Makes sure that a {@link LifecycleCallbacks} object is registered and is in
+     * the latest known lifecycle state. Unlike unregistering and registering it again,
+     * nothing is called when the object is already registered and is in that state.
+     *
+     * @param lifecycleCallbacks The interface to call.
+     */
+    public void rebindLifecycleCallbacks(@NonNull final LifecycleCallbacks lifecycleCallbacks) {
+        final int index = indexOf(lifecycleCallbacks);
+        if (index < 0) {
+            registerLifecycleCallbacks(lifecycleCallbacks);
+        } else if (mLifecycleStates[index] != mLifecycleState) {
+            moveToState(index, mLifecycleState);
+        }
+    }
+
+    private int indexOf(@NonNull final LifecycleCallbacks lifecycleCallbacks) {
+        for (int i = 0; i < mSize; i++) {
+            if (mLifecycleCallbacks[i] == lifecycleCallbacks) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calls lifecycle methods of the callbacks at a given index
+     * that are required to move it to the given state.
+     */
+    private void moveToState(final int index, @LifecycleState final int lifecycleState) {
+        final LifecycleCallbacks lifecycleCallbacks = mLifecycleCallbacks[index];
+        @LifecycleState final int currentState = mLifecycleStates[index];
+        // Store the state before calling methods, callbacks may modify the composite
+        mLifecycleStates[index] = lifecycleState;
+
+        if ((currentState & RESUMED) == RESUMED && (lifecycleState & RESUMED) != RESUMED) {
+            lifecycleCallbacks.onPause();
+        }
+        if ((currentState & STARTED) == STARTED && (lifecycleState & STARTED) != STARTED) {
+            lifecycleCallbacks.onStop();
+        }
+        if ((currentState & STARTED) != STARTED && (lifecycleState & STARTED) == STARTED) {
+            lifecycleCallbacks.onStart();
+        }
+        if ((currentState & RESUMED) != RESUMED && (lifecycleState & RESUMED) == RESUMED) {
+            lifecycleCallbacks.onResume();
+        }
+    }
+
+    /**
+     * Moves all of the registered callbacks to the given state.
+     */
+    private void dispatchState(@LifecycleState final int lifecycleState) {
+        mLifecycleState = lifecycleState;
+        for (int i = 0; i < mSize; i++) {
+            if (mLifecycleStates[i] != lifecycleState) {
+                moveToState(i, lifecycleState);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void onStart() {
-        mLifecycleState |= STARTED;
-
-        for (final Map.Entry<LifecycleCallbacks, Integer> entry : mLifecycleCallbacks.entrySet()) {
-            @LifecycleState final int lifecycleState = entry.getValue();
-            if ((lifecycleState & STARTED) != STARTED) {
-                final LifecycleCallbacks lifecycleCallbacks = entry.getKey();
-                lifecycleCallbacks.onStart();
-                entry.setValue(lifecycleState | STARTED);
-            }
-        }
+        dispatchState(mLifecycleState | STARTED);
     }
 
     /**
@@ -115,16 +186,7 @@ public class LifecycleComposite implements LifecycleCallbacks {
      */
     @Override
     public void onResume() {
-        mLifecycleState |= RESUMED;
-
-        for (final Map.Entry<LifecycleCallbacks, Integer> entry : mLifecycleCallbacks.entrySet()) {
-            @LifecycleState final int lifecycleState = entry.getValue();
-            if ((lifecycleState & RESUMED) != RESUMED) {
-                final LifecycleCallbacks lifecycleCallbacks = entry.getKey();
-                lifecycleCallbacks.onResume();
-                entry.setValue(lifecycleState | RESUMED);
-            }
-        }
+        dispatchState(mLifecycleState | RESUMED);
     }
 
     /**
@@ -132,16 +194,7 @@ public class LifecycleComposite implements LifecycleCallbacks {
      */
     @Override
     public void onPause() {
-        mLifecycleState &= ~RESUMED;
-
-        for (final Map.Entry<LifecycleCallbacks, Integer> entry : mLifecycleCallbacks.entrySet()) {
-            @LifecycleState final int lifecycleState = entry.getValue();
-            if ((lifecycleState & RESUMED) == RESUMED) {
-                final LifecycleCallbacks lifecycleCallbacks = entry.getKey();
-                lifecycleCallbacks.onPause();
-                entry.setValue(lifecycleState & ~RESUMED);
-            }
-        }
+        dispatchState(mLifecycleState & ~RESUMED);
     }
 
     /**
@@ -149,16 +202,7 @@ public class LifecycleComposite implements LifecycleCallbacks {
      */
     @Override
     public void onStop() {
-        mLifecycleState &= ~STARTED;
-
-        for (final Map.Entry<LifecycleCallbacks, Integer> entry : mLifecycleCallbacks.entrySet()) {
-            @LifecycleState final int lifecycleState = entry.getValue();
-            if ((lifecycleState & STARTED) == STARTED) {
-                final LifecycleCallbacks lifecycleCallbacks = entry.getKey();
-                lifecycleCallbacks.onStop();
-                entry.setValue(lifecycleState & ~STARTED);
-            }
-        }
+        dispatchState(mLifecycleState & ~STARTED);
     }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Provides methods for registering or unregistering arbitrary observers in
+ * a copy-on-write array.
+ * <p>
+ * Registration replaces the array with a modified copy using compare-and-set, so observers
+ * can be registered and unregistered from any thread without locking. Notifications iterate
+ * over an immutable snapshot returned by {@link #getObservers()} without locking or
+ * allocating memory, observers registered or unregistered during the notification
+ * take effect since the next one.
+ * <p>
+ * This abstract class is intended to be subclassed and specialized to maintain
+ * a registry of observers of specific types and dispatch notifications to them.
+ *
+ * @param <T> The observer type.
+ */
+public abstract class CopyOnWriteObservable<T> {
+
+    /**
+     * The array of observers. An observer can be in the array at most
+     * once and will never be null. The array is never modified in place.
+     */
+    @NonNull
+    private final AtomicReference<T[]> mObservers;
+
+    /**
+     * @param emptyObservers An empty array of the observer type,
+     *                       it's used to create arrays of the same type.
+     */
+    public CopyOnWriteObservable(@NonNull final T[] emptyObservers) {
+        if (emptyObservers.length != 0) {
+            throw new IllegalArgumentException("Array of observers should be empty");
+        }
+        mObservers = new AtomicReference<>(emptyObservers);
+    }
+
+    /**
+     * Returns a snapshot of the registered observers. The array must not be modified.
+     *
+     * @return an immutable array of the registered observers.
+     */
+    @NonNull
+    protected final T[] getObservers() {
+        return mObservers.get();
+    }
+
+    /**
+     * Checks if this observable has any registered observers.
+     *
+     * @return true if this observable has any registered observers, false otherwise.
+     */
+    public boolean hasObservers() {
+        return (mObservers.get().length > 0);
+    }
+
+    /**
+     * Adds an observer to the array.
+     *
+     * @param observer the observer to register
+     */
+    public void registerObserver(@NonNull final T observer) {
+        T[] observers;
+        T[] newObservers;
+        do {
+            observers = mObservers.get();
+            if (indexOf(observers, observer) >= 0) {
+                return;
+            }
+            newObservers = Arrays.copyOf(observers, observers.length + 1);
+            newObservers[observers.length] = observer;
+        } while (!mObservers.compareAndSet(observers, newObservers));
+    }
+
+    /**
+     * Removes a previously registered observer.
+     *
+     * @param observer the observer to unregister
+     */
+    public void unregisterObserver(@NonNull final T observer) {
+        T[] observers;
+        T[] newObservers;
+        do {
+            observers = mObservers.get();
+            final int index = indexOf(observers, observer);
+            if (index < 0) {
+                return;
+            }
+            newObservers = Arrays.copyOf(observers, observers.length - 1);
+            System.arraycopy(observers, index + 1, newObservers, index, newObservers.length - index);
+        } while (!mObservers.compareAndSet(observers, newObservers));
+    }
+
+    /**
+     * Remove all registered observers.
+     */
+    public void unregisterAll() {
+        T[] observers;
+        do {
+            observers = mObservers.get();
+            if (observers.length == 0) {
+                return;
+            }
+        } while (!mObservers.compareAndSet(observers, Arrays.copyOf(observers, 0)));
+    }
+
+    private static <T> int indexOf(@NonNull final T[] observers, @NonNull final T observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i].equals(observer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
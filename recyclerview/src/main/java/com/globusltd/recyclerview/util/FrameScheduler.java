@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.util;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * Runs an action once at the beginning of the next frame, no matter how many times
+ * it has been scheduled before that.
+ * <p>
+ * {@link Choreographer} is used on Jelly Bean and above, on older versions the action
+ * is posted to the main thread with a delay of a single animation frame.
+ */
+@MainThread
+public class FrameScheduler {
+
+    @NonNull
+    private final Runnable mAction;
+
+    @NonNull
+    private final Runnable mFrameRunnable;
+
+    @NonNull
+    private final Handler mMainThreadHandler;
+
+    private Object mFrameCallback;
+
+    private boolean mScheduled;
+
+    /**
+     * @param action The action to run at the beginning of the frame.
+     */
+    public FrameScheduler(@NonNull final Runnable action) {
+        mAction = action;
+        mFrameRunnable = new Runnable() {
+
+            @Override
+            public void run() {
+                doFrame();
+            }
+
+        };
+        mMainThreadHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Schedules the action to run at the beginning of the next frame
+     * if it's not scheduled yet.
+     */
+    public void schedule() {
+        if (mScheduled) {
+            return;
+        }
+
+        mScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            mMainThreadHandler.postDelayed(mFrameRunnable, ValueAnimator.getFrameDelay());
+        }
+    }
+
+    /**
+     * Cancels the scheduled action.
+     */
+    public void cancel() {
+        if (!mScheduled) {
+            return;
+        }
+
+        mScheduled = false;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            removeFrameCallback();
+        } else {
+            mMainThreadHandler.removeCallbacks(mFrameRunnable);
+        }
+    }
+
+    /**
+     * Returns true if the action is scheduled and has not been run yet.
+     */
+    public boolean isScheduled() {
+        return mScheduled;
+    }
+
+    private void doFrame() {
+        if (mScheduled) {
+            mScheduled = false;
+            mAction.run();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (mFrameCallback == null) {
+            mFrameCallback = new Choreographer.FrameCallback() {
+
+                @Override
+                public void doFrame(final long frameTimeNanos) {
+                    FrameScheduler.this.doFrame();
+                }
+
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void removeFrameCallback() {
+        Choreographer.getInstance().removeFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.util;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive long values that is backed by an open-addressing hash table.
+ * <p>
+ * Values are kept in insertion order, so {@link #toArray()} returns them in the same
+ * order they have been added. Lookups, insertions and removals take constant time
+ * on average and never box values.
+ */
+public class LongHashSet {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Values in insertion order. Removed values leave holes that are
+     * marked in {@link #mRemoved} and are compacted when the array is full.
+     */
+    @NonNull
+    private long[] mValues;
+
+    @NonNull
+    private boolean[] mRemoved;
+
+    /**
+     * Number of used slots in {@link #mValues} including holes.
+     */
+    private int mValuesCount;
+
+    private int mSize;
+
+    /**
+     * Open-addressing table with linear probing. Each slot contains an index
+     * in {@link #mValues} plus one, zero marks an empty slot.
+     */
+    @NonNull
+    private int[] mTable;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(@IntRange(from = 0) final int capacity) {
+        allocate(Math.max(capacity, DEFAULT_CAPACITY));
+    }
+
+    private void allocate(final int capacity) {
+        mValues = new long[capacity];
+        mRemoved = new boolean[capacity];
+        mTable = new int[tableSizeFor(capacity)];
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        // Keep load factor not greater than 0.5
+        return Integer.highestOneBit(capacity - 1) << 2;
+    }
+
+    private static int hash(final long value) {
+        final int h = (int) (value ^ (value >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16));
+    }
+
+    /**
+     * Returns slot that contains a given value or an empty slot
+     * where the value should be placed.
+     */
+    private int findSlot(final long value) {
+        final int mask = mTable.length - 1;
+        int slot = hash(value) & mask;
+        int entry;
+        while ((entry = mTable[slot]) != 0 && mValues[entry - 1] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the number of values in this set.
+     */
+    @IntRange(from = 0)
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns true if this set contains no values.
+     */
+    public boolean isEmpty() {
+        return (mSize == 0);
+    }
+
+    /**
+     * Returns true if this set contains the specified value.
+     *
+     * @param value value whose presence in this set is to be tested.
+     * @return true if this set contains the specified value.
+     */
+    public boolean contains(final long value) {
+        return (mTable[findSlot(value)] != 0);
+    }
+
+    /**
+     * Adds the specified value to this set if it is not already present.
+     *
+     * @param value value to be added to this set.
+     * @return true if this set did not already contain the specified value.
+     */
+    public boolean add(final long value) {
+        int slot = findSlot(value);
+        if (mTable[slot] != 0) {
+            return false;
+        }
+
+        if (mValuesCount == mValues.length) {
+            // Compact holes when there are many of them, otherwise grow
+            final int capacity = mValues.length;
+            rehash(mSize >= (capacity >> 1) ? (capacity << 1) : capacity);
+            slot = findSlot(value);
+        }
+
+        mValues[mValuesCount] = value;
+        mTable[slot] = ++mValuesCount;
+        mSize++;
+        return true;
+    }
+
+    /**
+     * Removes the specified value from this set if it is present.
+     *
+     * @param value value to be removed from this set.
+     * @return true if this set contained the specified value.
+     */
+    public boolean remove(final long value) {
+        int hole = findSlot(value);
+        final int entry = mTable[hole];
+        if (entry == 0) {
+            return false;
+        }
+
+        mRemoved[entry - 1] = true;
+        mSize--;
+
+        // Shift back the following entries of the cluster to keep probe sequences unbroken
+        final int mask = mTable.length - 1;
+        int slot = (hole + 1) & mask;
+        int next;
+        while ((next = mTable[slot]) != 0) {
+            final int idealSlot = hash(mValues[next - 1]) & mask;
+            if (((slot - idealSlot) & mask) >= ((slot - hole) & mask)) {
+                mTable[hole] = next;
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        mTable[hole] = 0;
+
+        if (mSize == 0) {
+            Arrays.fill(mRemoved, 0, mValuesCount, false);
+            mValuesCount = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Removes all of the values from this set.
+     */
+    public void clear() {
+        Arrays.fill(mTable, 0);
+        Arrays.fill(mRemoved, 0, mValuesCount, false);
+        mValuesCount = 0;
+        mSize = 0;
+    }
+
+    /**
+     * Returns an array containing all of the values in this set in insertion order.
+     *
+     * @return an array containing all of the values in this set.
+     */
+    @NonNull
+    public long[] toArray() {
+        final long[] values = new long[mSize];
+        int index = 0;
+        for (int i = 0; i < mValuesCount; i++) {
+            if (!mRemoved[i]) {
+                values[index++] = mValues[i];
+            }
+        }
+        return values;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] values = mValues;
+        final boolean[] removed = mRemoved;
+        final int valuesCount = mValuesCount;
+        if (capacity != values.length) {
+            allocate(capacity);
+        } else {
+            Arrays.fill(mTable, 0);
+        }
+
+        // Values are compacted in place when capacity is not changed,
+        // it's safe since the write index never overtakes the read one
+        int index = 0;
+        for (int i = 0; i < valuesCount; i++) {
+            final boolean isRemoved = removed[i];
+            mRemoved[i] = false;
+            if (!isRemoved) {
+                final long value = values[i];
+                mValues[index] = value;
+                mTable[findSlot(value)] = ++index;
+            }
+        }
+        mValuesCount = index;
+    }
+
+}
@@ -18,8 +18,10 @@ package com.globusltd.recyclerview.view;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.os.Build;
+import android.support.annotation.IntRange;
 import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
+import android.support.v4.util.LongSparseArray;
 import android.support.v7.widget.RecyclerView;
 import android.util.SparseBooleanArray;
 import android.view.View;
@@ -27,10 +29,13 @@ import android.widget.Checkable;
 
 import com.globusltd.recyclerview.ViewHolderObserver;
 import com.globusltd.recyclerview.ViewHolderTracker;
+import com.globusltd.recyclerview.choice.BulkChoiceMode;
 import com.globusltd.recyclerview.choice.CheckableViewHolder;
 import com.globusltd.recyclerview.choice.ChoiceMode;
 import com.globusltd.recyclerview.choice.ChoiceModeObserver;
 import com.globusltd.recyclerview.choice.NoneChoiceMode;
+import com.globusltd.recyclerview.util.FrameScheduler;
+import com.globusltd.recyclerview.util.LongHashSet;
 
 /**
  * This is an utility class to add choice mode support to RecyclerView.
@@ -40,6 +45,9 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
 
     private static final ChoiceMode DEFAULT_CHOICE_MODE = new NoneChoiceMode();
 
+    private static final int STATE_CHECKED = 1;
+    private static final int STATE_ACTIVATED = 1 << 1;
+
     @NonNull
     private ChoiceMode mChoiceMode;
 
@@ -58,6 +66,33 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
     @NonNull
     private final ViewHolderObserver mViewHolderObserver;
 
+    /**
+     * Checked and activated states applied to attached view holders, indexed by item ids.
+     */
+    @NonNull
+    private final LongSparseArray<Integer> mAppliedStates;
+
+    /**
+     * Ids of items whose checked state has been changed programmatically since the last frame.
+     */
+    @NonNull
+    private final LongHashSet mDirtyItemIds;
+
+    /**
+     * Ids of items whose checked state has been changed by the user since the last frame.
+     */
+    @NonNull
+    private final LongHashSet mDirtyUserItemIds;
+
+    @NonNull
+    private final FrameScheduler mFrameScheduler;
+
+    private boolean mDeferredUpdatesEnabled;
+    private boolean mDispatchUserChangesImmediately = true;
+
+    private boolean mAllItemsDirty;
+    private boolean mAllItemsDirtyFromUser;
+
     public ChoiceModeHelper(@NonNull final Callback<E> callback) {
         this(callback, DEFAULT_CHOICE_MODE);
     }
@@ -71,6 +106,17 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
         mCheckableViewHolderTypes = new SparseBooleanArray();
         mViewHolderTracker = new ViewHolderTracker();
         mViewHolderObserver = new ChoiceModeViewHolderObserver();
+        mAppliedStates = new LongSparseArray<>();
+        mDirtyItemIds = new LongHashSet();
+        mDirtyUserItemIds = new LongHashSet();
+        mFrameScheduler = new FrameScheduler(new Runnable() {
+
+            @Override
+            public void run() {
+                dispatchDeferredUpdates();
+            }
+
+        });
     }
 
     /**
@@ -91,6 +137,94 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
         }
     }
 
+    /**
+     * Enables deferred updates of view holders. When enabled, ids of items whose checked state
+     * has been changed are collected and view holders are updated once at the beginning of
+     * the next frame, so a burst of programmatic changes updates every view holder only once.
+     * Deferred updates are disabled by default.
+     *
+     * @param enabled True to defer updates till the next frame, false to update immediately.
+     * @see #setDispatchUserChangesImmediately(boolean)
+     */
+    public void setDeferredUpdatesEnabled(final boolean enabled) {
+        mDeferredUpdatesEnabled = enabled;
+        if (!enabled) {
+            dispatchDeferredUpdates();
+        }
+    }
+
+    /**
+     * Sets whether changes initiated by the user are dispatched immediately even if
+     * deferred updates are enabled, so the touched item responds without a frame of delay.
+     * Default value is true.
+     *
+     * @param immediately True to dispatch changes initiated by the user immediately.
+     */
+    public void setDispatchUserChangesImmediately(final boolean immediately) {
+        mDispatchUserChangesImmediately = immediately;
+    }
+
+    /**
+     * Sets the checked state of the items in the given range of adapter positions.
+     * Choice mode observers are notified once for the whole range if the choice mode
+     * is a {@link BulkChoiceMode}, otherwise once for every item.
+     *
+     * @param positionStart Position of the first item whose checked state is to be changed.
+     * @param itemCount     Number of items whose checked state is to be changed.
+     * @param checked       The new checked state for the items.
+     */
+    public void setItemRangeChecked(@IntRange(from = 0) final int positionStart,
+                                    @IntRange(from = 0) final int itemCount,
+                                    final boolean checked) {
+        final long[] itemIds = getItemIds(positionStart, itemCount);
+        if (mChoiceMode instanceof BulkChoiceMode) {
+            ((BulkChoiceMode) mChoiceMode).setItemsChecked(itemIds, checked);
+        } else {
+            for (final long itemId : itemIds) {
+                mChoiceMode.setItemChecked(itemId, checked);
+            }
+        }
+    }
+
+    /**
+     * Inverts the checked state of the items in the given range of adapter positions.
+     * Choice mode observers are notified once for the whole range if the choice mode
+     * is a {@link BulkChoiceMode}, otherwise once for every item.
+     *
+     * @param positionStart Position of the first item whose checked state is to be inverted.
+     * @param itemCount     Number of items whose checked state is to be inverted.
+     */
+    public void invertItemRangeChecked(@IntRange(from = 0) final int positionStart,
+                                       @IntRange(from = 0) final int itemCount) {
+        final long[] itemIds = getItemIds(positionStart, itemCount);
+        if (mChoiceMode instanceof BulkChoiceMode) {
+            ((BulkChoiceMode) mChoiceMode).invertItemsChecked(itemIds);
+        } else {
+            for (final long itemId : itemIds) {
+                mChoiceMode.setItemChecked(itemId, !mChoiceMode.isItemChecked(itemId));
+            }
+        }
+    }
+
+    @NonNull
+    private long[] getItemIds(final int positionStart, final int itemCount) {
+        final RecyclerView recyclerView = getRecyclerView();
+        final RecyclerView.Adapter<?> adapter = (recyclerView != null ? recyclerView.getAdapter() : null);
+        if (adapter == null) {
+            throw new IllegalStateException("ChoiceModeHelper should be attached to RecyclerView " +
+                    "with non-null adapter");
+        }
+        if (!adapter.hasStableIds()) {
+            throw new IllegalStateException("RecyclerView.Adapter should have stable ids");
+        }
+
+        final long[] itemIds = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemIds[i] = adapter.getItemId(positionStart + i);
+        }
+        return itemIds;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -125,6 +259,12 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
 
         mCheckableViewTypes.clear();
         mCheckableViewHolderTypes.clear();
+        mAppliedStates.clear();
+        mFrameScheduler.cancel();
+        mDirtyItemIds.clear();
+        mDirtyUserItemIds.clear();
+        mAllItemsDirty = false;
+        mAllItemsDirtyFromUser = false;
         mChoiceMode.unregisterChoiceModeObserver(mChoiceModeObserver);
         mViewHolderTracker.unregisterViewHolderObserver(mViewHolderObserver);
         mViewHolderTracker.setRecyclerView(null);
@@ -179,6 +319,10 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
 
         @Override
         public void onDetached(@NonNull final RecyclerView.ViewHolder viewHolder) {
+            final long itemId = viewHolder.getItemId();
+            if (itemId != RecyclerView.NO_ID && mViewHolderTracker.findViewHolderForItemId(itemId) == null) {
+                mAppliedStates.remove(itemId);
+            }
             setViewHolderChecked(viewHolder, false);
             updateCheckableViewHolder(viewHolder, false, false, false);
         }
@@ -189,29 +333,92 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
 
         @Override
         public void onItemCheckedChanged(final long itemId, final boolean fromUser) {
-            final RecyclerView recyclerView = getRecyclerView();
-            final RecyclerView.ViewHolder viewHolder = (recyclerView != null ?
-                    recyclerView.findViewHolderForItemId(itemId) : null);
-            if (viewHolder != null) {
-                onViewHolderCheckedChanged(viewHolder, fromUser);
+            if (shouldDefer(fromUser)) {
+                // The latest change of the item decides whether it's dispatched as the user's one
+                if (fromUser) {
+                    mDirtyItemIds.remove(itemId);
+                    mDirtyUserItemIds.add(itemId);
+                } else {
+                    mDirtyUserItemIds.remove(itemId);
+                    if (!mAllItemsDirty) {
+                        mDirtyItemIds.add(itemId);
+                    }
+                }
+                mFrameScheduler.schedule();
+            } else {
+                mDirtyItemIds.remove(itemId);
+                mDirtyUserItemIds.remove(itemId);
+                dispatchItemCheckedChanged(itemId, fromUser);
             }
         }
 
         @Override
         public void notifyAllItemsCheckedChanged(final boolean fromUser) {
-            final RecyclerView recyclerView = getRecyclerView();
-            final int childCount = (recyclerView != null ? recyclerView.getChildCount() : 0);
-            for (int index = 0; index < childCount; index++) {
-                final View itemView = recyclerView.getChildAt(index);
-                final RecyclerView.ViewHolder viewHolder = recyclerView.findContainingViewHolder(itemView);
-                if (viewHolder != null) {
-                    onViewHolderCheckedChanged(viewHolder, fromUser);
-                }
+            if (shouldDefer(fromUser)) {
+                // All items are going to be updated, so particular ones are not needed anymore,
+                // except the ones changed by the user which are dispatched with their own flag
+                mAllItemsDirty = true;
+                mAllItemsDirtyFromUser |= fromUser;
+                mDirtyItemIds.clear();
+                mFrameScheduler.schedule();
+            } else {
+                dispatchAllItemsCheckedChanged(fromUser);
             }
         }
 
     }
 
+    private boolean shouldDefer(final boolean fromUser) {
+        return (mDeferredUpdatesEnabled && !(fromUser && mDispatchUserChangesImmediately));
+    }
+
+    private void dispatchDeferredUpdates() {
+        mFrameScheduler.cancel();
+        if (!mDirtyUserItemIds.isEmpty()) {
+            final long[] itemIds = mDirtyUserItemIds.toArray();
+            mDirtyUserItemIds.clear();
+            for (final long itemId : itemIds) {
+                dispatchItemCheckedChanged(itemId, true);
+            }
+        }
+
+        if (mAllItemsDirty) {
+            // View holders updated above are skipped since their states have been applied
+            final boolean fromUser = mAllItemsDirtyFromUser;
+            mAllItemsDirty = false;
+            mAllItemsDirtyFromUser = false;
+            mDirtyItemIds.clear();
+            dispatchAllItemsCheckedChanged(fromUser);
+
+        } else if (!mDirtyItemIds.isEmpty()) {
+            final long[] itemIds = mDirtyItemIds.toArray();
+            mDirtyItemIds.clear();
+            for (final long itemId : itemIds) {
+                dispatchItemCheckedChanged(itemId, false);
+            }
+        }
+    }
+
+    private void dispatchItemCheckedChanged(final long itemId, final boolean fromUser) {
+        final RecyclerView.ViewHolder viewHolder = mViewHolderTracker.findViewHolderForItemId(itemId);
+        if (viewHolder != null) {
+            onViewHolderCheckedChanged(viewHolder, fromUser);
+        }
+    }
+
+    private void dispatchAllItemsCheckedChanged(final boolean fromUser) {
+        final int count = mViewHolderTracker.getAttachedViewHolderCount();
+        for (int index = 0; index < count; index++) {
+            final RecyclerView.ViewHolder viewHolder = mViewHolderTracker.getAttachedViewHolder(index);
+            final long itemId = viewHolder.getItemId();
+            final Integer appliedState = (itemId != RecyclerView.NO_ID ? mAppliedStates.get(itemId) : null);
+            if (appliedState == null || appliedState != getState(itemId)) {
+                // Only view holders whose state has been changed are updated
+                onViewHolderCheckedChanged(viewHolder, fromUser);
+            }
+        }
+    }
+
     private void onViewHolderCheckedChanged(@NonNull final RecyclerView.ViewHolder viewHolder,
                                             final boolean fromUser) {
         final boolean isActivated = mChoiceMode.isActivated();
@@ -219,6 +426,17 @@ public class ChoiceModeHelper<E> extends ItemClickHelper<E> {
         final boolean isChecked = mChoiceMode.isItemChecked(itemId);
         setViewHolderChecked(viewHolder, isChecked);
         updateCheckableViewHolder(viewHolder, isActivated, isChecked, fromUser);
+        if (itemId != RecyclerView.NO_ID) {
+            mAppliedStates.put(itemId, getState(isActivated, isChecked));
+        }
+    }
+
+    private int getState(final long itemId) {
+        return getState(mChoiceMode.isActivated(), mChoiceMode.isItemChecked(itemId));
+    }
+
+    private static int getState(final boolean isActivated, final boolean isChecked) {
+        return (isActivated ? STATE_ACTIVATED : 0) | (isChecked ? STATE_CHECKED : 0);
     }
 
     @TargetApi(Build.VERSION_CODES.HONEYCOMB)
@@ -22,14 +22,20 @@ import android.support.annotation.Nullable;
 import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.RecyclerView;
 import android.view.View;
-import android.view.ViewGroup;
 import android.view.ViewParent;
 
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
 /**
  * Helper class for searching view that actually has tapped by the user.
+ * <p>
+ * Clickable views are looked up in the {@link HitTestIndex} of the item view. Indexes are
+ * created when item views are attached and rebuilt when they are laid out, so the touch
+ * sequence neither traverses the view tree nor allocates memory.
  */
 @MainThread
-class ClickableViewFinder {
+class ClickableViewFinder implements RecyclerView.OnChildAttachStateChangeListener {
 
     @NonNull
     private final RecyclerView mHostView;
@@ -37,10 +43,66 @@ class ClickableViewFinder {
     @NonNull
     private final ItemClickHelper.Callback<?> mCallback;
 
+    /**
+     * Hit-test indexes of item views. Indexes are held by item views as layout change
+     * listeners, so they are referenced weakly to let item views be collected.
+     */
+    @NonNull
+    private final WeakHashMap<View, WeakReference<HitTestIndex>> mHitTestIndexes;
+
+    /**
+     * The only target instance, it's reused for each touch sequence.
+     */
+    @NonNull
+    private final Target mTarget;
+
     ClickableViewFinder(@NonNull final RecyclerView hostView,
                         @NonNull final ItemClickHelper.Callback<?> callback) {
         mHostView = hostView;
         mCallback = callback;
+        mHitTestIndexes = new WeakHashMap<>();
+        mTarget = new Target();
+    }
+
+    /**
+     * Starts creating hit-test indexes for item views attached to the host view,
+     * including the ones that are already attached.
+     */
+    void attach() {
+        mHostView.addOnChildAttachStateChangeListener(this);
+        final int childCount = mHostView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            onChildViewAttachedToWindow(mHostView.getChildAt(i));
+        }
+    }
+
+    /**
+     * Stops creating hit-test indexes and releases the existing ones.
+     */
+    void detach() {
+        mHostView.removeOnChildAttachStateChangeListener(this);
+        for (final WeakReference<HitTestIndex> reference : mHitTestIndexes.values()) {
+            final HitTestIndex hitTestIndex = reference.get();
+            if (hitTestIndex != null) {
+                hitTestIndex.release();
+            }
+        }
+        mHitTestIndexes.clear();
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(final View view) {
+        final WeakReference<HitTestIndex> reference = mHitTestIndexes.get(view);
+        if (reference == null || reference.get() == null) {
+            final HitTestIndex hitTestIndex = new HitTestIndex(this, view);
+            mHitTestIndexes.put(view, new WeakReference<>(hitTestIndex));
+            hitTestIndex.rebuild();
+        }
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(final View view) {
+        // The index is kept, the item view may be attached again from the recycled view pool
     }
 
     /**
@@ -49,7 +111,8 @@ class ClickableViewFinder {
      * @param x The x coordinate of the touch that caused the search.
      * @param y The y coordinate of the touch that caused the search.
      * @return {@link Target} instance that contains tapped view and containing view holder,
-     * null if view has not been found.
+     * null if view has not been found. The same instance is returned for every search,
+     * so it's valid until the next search or until it's cleared.
      */
     @Nullable
     Target findTarget(final float x, final float y) {
@@ -59,14 +122,31 @@ class ClickableViewFinder {
         }
 
         final RecyclerView.ViewHolder viewHolder = mHostView.getChildViewHolder(itemView);
+        final ClickableViews clickableViews = getClickableViews(viewHolder);
+        return (clickableViews != null ?
+                findTargetInViewHolder(viewHolder, clickableViews, x, y) : null);
+    }
+
+    /**
+     * Returns clickable views of the item view if it's a child of the host view.
+     *
+     * @param itemView The item view.
+     * @return The clickable views or null if the item view has no adapter position.
+     */
+    @Nullable
+    ClickableViews getClickableViews(@NonNull final View itemView) {
+        return (itemView.getParent() == mHostView ?
+                getClickableViews(mHostView.getChildViewHolder(itemView)) : null);
+    }
+
+    @Nullable
+    private ClickableViews getClickableViews(@NonNull final RecyclerView.ViewHolder viewHolder) {
         final int position = viewHolder.getAdapterPosition();
         final int viewType = viewHolder.getItemViewType();
         if (position <= RecyclerView.NO_POSITION || viewType <= RecyclerView.INVALID_TYPE) {
             return null;
         }
-
-        final ClickableViews clickableViews = mCallback.getClickableViews(position, viewType);
-        return findTargetInViewHolder(viewHolder, clickableViews, x, y);
+        return mCallback.getClickableViews(position, viewType);
     }
 
     @Nullable
@@ -83,93 +163,51 @@ class ClickableViewFinder {
 
         } else if (defaultViewId == ClickableViews.ITEM_VIEW_ID && clickableViewIds.length == 0) {
             // Quick return when only the whole item view is clickable
-            return new Target(viewHolder, itemView);
+            return mTarget.set(viewHolder, itemView);
 
         } else {
-            final View touchedView = findViewAt(itemView, x, y);
-            final View clickableView = (touchedView != null ?
-                    findClickableViewUpward(touchedView, itemView, clickableViews) : null);
-            return (clickableView != null ? new Target(viewHolder, clickableView) : null);
+            final float itemX = x - itemView.getLeft() - ViewCompat.getTranslationX(itemView);
+            final float itemY = y - itemView.getTop() - ViewCompat.getTranslationY(itemView);
+            final View clickableView = getHitTestIndex(itemView).findViewAt(clickableViews, itemX, itemY);
+            return (clickableView != null ? mTarget.set(viewHolder, clickableView) : null);
         }
     }
 
-    @Nullable
-    private View findViewAt(@NonNull final View view, final float x, final float y) {
-        if (!view.isShown() || !view.isEnabled() || !isViewAt(view, x, y)) {
-            return null;
-        }
-
-        if (view instanceof ViewGroup) {
-            final float transformedX = x - view.getLeft() - ViewCompat.getTranslationX(view);
-            final float transformedY = y - view.getTop() - ViewCompat.getTranslationY(view);
-
-            final ViewGroup viewGroup = (ViewGroup) view;
-            final int childCount = viewGroup.getChildCount();
-            for (int i = childCount - 1; i >= 0; i--) {
-                final View child = viewGroup.getChildAt(i);
-                final View foundView = findViewAt(child, transformedX, transformedY);
-                if (foundView != null) {
-                    return foundView;
-                }
-            }
+    @NonNull
+    private HitTestIndex getHitTestIndex(@NonNull final View itemView) {
+        final WeakReference<HitTestIndex> reference = mHitTestIndexes.get(itemView);
+        final HitTestIndex hitTestIndex = (reference != null ? reference.get() : null);
+        if (hitTestIndex == null) {
+            // Attached item views get their indexes in advance, so this is only a safety net
+            onChildViewAttachedToWindow(itemView);
+            return getHitTestIndex(itemView);
         }
-
-        return view;
+        return hitTestIndex;
     }
 
-    private boolean isViewAt(@NonNull final View view, final float x, final float y) {
-        final float viewX = view.getLeft() - ViewCompat.getTranslationX(view);
-        final float viewY = view.getTop() - ViewCompat.getTranslationY(view);
-        return ((x > viewX && x < (viewX + view.getWidth())) &&
-                (y > viewY && y < (viewY + view.getHeight())));
-    }
+    static class Target {
 
-    @Nullable
-    private View findClickableViewUpward(@NonNull final View view, @NonNull final View itemView,
-                                         @NonNull final ClickableViews clickableViews) {
-        View candidate = view;
-        do {
-            final boolean isDefaultView = (candidate == itemView &&
-                    clickableViews.getDefaultViewId() == ClickableViews.ITEM_VIEW_ID);
-            if (isDefaultView || isViewClickable(candidate, clickableViews)) {
-                return candidate;
-            }
-            final ViewParent parent = view.getParent();
-            candidate = (parent instanceof View ? (View) parent : null);
-        } while (candidate != null && candidate != itemView.getParent());
+        private RecyclerView.ViewHolder mViewHolder;
 
-        return null;
-    }
+        private View mView;
 
-    private boolean isViewClickable(@NonNull final View view,
-                                    @NonNull final ClickableViews clickableViews) {
-        final int viewId = view.getId();
-        if (clickableViews.getDefaultViewId() == viewId) {
-            return true;
+        private Target() {
         }
 
-        final int[] clickableViewIds = clickableViews.getClickableViewIds();
-        for (final int id : clickableViewIds) {
-            if (viewId == id) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    static class Target {
-
         @NonNull
-        private final RecyclerView.ViewHolder mViewHolder;
-
-        @NonNull
-        private final View mView;
-
-        private Target(@NonNull final RecyclerView.ViewHolder viewHolder,
-                       @NonNull final View view) {
+        private Target set(@NonNull final RecyclerView.ViewHolder viewHolder,
+                           @NonNull final View view) {
             mViewHolder = viewHolder;
             mView = view;
+            return this;
+        }
+
+        /**
+         * Releases references to the view holder and the view when the touch sequence is over.
+         */
+        void clear() {
+            mViewHolder = null;
+            mView = null;
         }
 
         /**
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.view;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of the clickable views of a single item view relative to the item view.
+ * <p>
+ * Offsets are collected when the index is created for an attached item view and
+ * collected again every time the item view or any of its descendants is laid out,
+ * so the lookup doesn't traverse the view tree.
+ * Clickable views are kept in the drawing order from the topmost one, so the lookup
+ * is a scan over the clickable views only. Translations, sizes, visibility and enabled
+ * state are read at the lookup time, since they may change without a layout pass.
+ */
+@MainThread
+class HitTestIndex implements View.OnLayoutChangeListener {
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    @NonNull
+    private final ClickableViewFinder mFinder;
+
+    @NonNull
+    private final View mItemView;
+
+    @Nullable
+    private ClickableViews mClickableViews;
+
+    @NonNull
+    private View[] mViews;
+
+    /**
+     * Left and top edges of each view without translations.
+     */
+    @NonNull
+    private float[] mOffsets;
+
+    private int mCount;
+
+    HitTestIndex(@NonNull final ClickableViewFinder finder, @NonNull final View itemView) {
+        mFinder = finder;
+        mItemView = itemView;
+        mViews = new View[DEFAULT_CAPACITY];
+        mOffsets = new float[DEFAULT_CAPACITY * 2];
+        itemView.addOnLayoutChangeListener(this);
+    }
+
+    /**
+     * Returns the topmost clickable view at the given point.
+     *
+     * @param clickableViews Clickable views of the item.
+     * @param x              The x coordinate relative to the item view.
+     * @param y              The y coordinate relative to the item view.
+     * @return The clickable view or null if there is no clickable view at the point.
+     */
+    @Nullable
+    View findViewAt(@NonNull final ClickableViews clickableViews, final float x, final float y) {
+        if (mClickableViews != clickableViews) {
+            // The item has been bound to other clickable views without a layout pass
+            rebuild(clickableViews);
+        }
+
+        final float[] offsets = mOffsets;
+        for (int i = 0; i < mCount; i++) {
+            final View view = mViews[i];
+            final float left = offsets[i * 2] + getTranslationX(view);
+            final float top = offsets[i * 2 + 1] + getTranslationY(view);
+            if (x >= left && x < left + view.getWidth() &&
+                    y >= top && y < top + view.getHeight() &&
+                    view.isShown() && view.isEnabled()) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the sum of horizontal translations of the view and its ancestors
+     * below the item view.
+     */
+    private float getTranslationX(@NonNull final View view) {
+        float translationX = 0f;
+        View current = view;
+        while (current != mItemView) {
+            translationX += ViewCompat.getTranslationX(current);
+            current = (View) current.getParent();
+        }
+        return translationX;
+    }
+
+    /**
+     * Returns the sum of vertical translations of the view and its ancestors
+     * below the item view.
+     */
+    private float getTranslationY(@NonNull final View view) {
+        float translationY = 0f;
+        View current = view;
+        while (current != mItemView) {
+            translationY += ViewCompat.getTranslationY(current);
+            current = (View) current.getParent();
+        }
+        return translationY;
+    }
+
+    @Override
+    public void onLayoutChange(final View v, final int left, final int top, final int right,
+                               final int bottom, final int oldLeft, final int oldTop,
+                               final int oldRight, final int oldBottom) {
+        // Descendants are laid out by the item view, so the listener catches their changes too
+        rebuild();
+    }
+
+    /**
+     * Collects offsets of the clickable views of the item the item view is bound to.
+     */
+    void rebuild() {
+        final ClickableViews clickableViews = mFinder.getClickableViews(mItemView);
+        if (clickableViews != null) {
+            rebuild(clickableViews);
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * Stops tracking layout changes of the item view.
+     */
+    void release() {
+        mItemView.removeOnLayoutChangeListener(this);
+        clear();
+    }
+
+    private void rebuild(@NonNull final ClickableViews clickableViews) {
+        clear();
+        mClickableViews = clickableViews;
+        collect(mItemView, clickableViews);
+    }
+
+    private void clear() {
+        mClickableViews = null;
+        Arrays.fill(mViews, 0, mCount, null);
+        mCount = 0;
+    }
+
+    /**
+     * Collects clickable views in the reversed drawing order: children from the last one,
+     * each child's descendants before the child itself.
+     */
+    private void collect(@NonNull final View view, @NonNull final ClickableViews clickableViews) {
+        if (view.getVisibility() == View.GONE) {
+            return;
+        }
+
+        if (view instanceof ViewGroup) {
+            final ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = viewGroup.getChildCount() - 1; i >= 0; i--) {
+                collect(viewGroup.getChildAt(i), clickableViews);
+            }
+        }
+
+        if (isViewClickable(view, clickableViews)) {
+            add(view);
+        }
+    }
+
+    private boolean isViewClickable(@NonNull final View view,
+                                    @NonNull final ClickableViews clickableViews) {
+        final int defaultViewId = clickableViews.getDefaultViewId();
+        if (view == mItemView && defaultViewId == ClickableViews.ITEM_VIEW_ID) {
+            return true;
+        }
+
+        final int viewId = view.getId();
+        if (viewId == View.NO_ID) {
+            return false;
+        }
+        if (defaultViewId == viewId) {
+            return true;
+        }
+
+        for (final int id : clickableViews.getClickableViewIds()) {
+            if (viewId == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(@NonNull final View view) {
+        if (mCount == mViews.length) {
+            mViews = Arrays.copyOf(mViews, mCount * 2);
+            mOffsets = Arrays.copyOf(mOffsets, mCount * 2 * 2);
+        }
+
+        // Offset of the view relative to the item view, translations are applied on lookup
+        float left = 0f;
+        float top = 0f;
+        View current = view;
+        while (current != mItemView) {
+            left += current.getLeft();
+            top += current.getTop();
+            final ViewParent parent = current.getParent();
+            if (!(parent instanceof View)) {
+                return;
+            }
+            current = (View) parent;
+        }
+
+        mOffsets[mCount * 2] = left;
+        mOffsets[mCount * 2 + 1] = top;
+        mViews[mCount] = view;
+        mCount++;
+    }
+
+}
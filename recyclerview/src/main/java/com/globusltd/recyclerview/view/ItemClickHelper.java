@@ -15,6 +15,7 @@
  */
 package com.globusltd.recyclerview.view;
 
+import android.os.SystemClock;
 import android.support.annotation.CallSuper;
 import android.support.annotation.IntRange;
 import android.support.annotation.MainThread;
@@ -26,6 +27,8 @@ import android.view.View;
 
 import com.globusltd.recyclerview.RecyclerViewOwner;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * This is an utility class to add item click and item long click support to RecyclerView.
  * <p>
@@ -53,6 +56,15 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
     @Nullable
     private EnchancedGestureDetector mGestureDetector;
 
+    @Nullable
+    private ClickableViewFinder mViewFinder;
+
+    @Nullable
+    private TouchLatencyStats mTouchLatencyStats;
+
+    @Nullable
+    private TouchLatencyStats mLongPressLatencyStats;
+
     public ItemClickHelper(@NonNull final Callback<E> callback) {
         mCallback = callback;
         mOnItemTouchListener = new OnItemTouchListener();
@@ -77,6 +89,26 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
         notifyLongpressEnabledChanged();
     }
 
+    /**
+     * Sets the stats that collect latencies between the touch up event and the moment
+     * the item click callback returns. Latencies are not collected by default.
+     *
+     * @param touchLatencyStats The stats to record latencies into or null to stop recording.
+     */
+    public void setTouchLatencyStats(@Nullable final TouchLatencyStats touchLatencyStats) {
+        mTouchLatencyStats = touchLatencyStats;
+    }
+
+    /**
+     * Sets the stats that collect latencies between the moment the long press is detected
+     * and the moment the item long click callback returns. Latencies are not collected by default.
+     *
+     * @param longPressLatencyStats The stats to record latencies into or null to stop recording.
+     */
+    public void setLongPressLatencyStats(@Nullable final TouchLatencyStats longPressLatencyStats) {
+        mLongPressLatencyStats = longPressLatencyStats;
+    }
+
     /**
      * @return true if longpress is enabled, else false.
      */
@@ -99,7 +131,9 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
     @CallSuper
     @Override
     protected void onAttachedToRecyclerView(@NonNull final RecyclerView recyclerView) {
-        final EnchancedGestureDetector.OnGestureListener onGestureListener = new DefaultGestureListener(recyclerView);
+        mViewFinder = new ClickableViewFinder(recyclerView, mCallback);
+        mViewFinder.attach();
+        final EnchancedGestureDetector.OnGestureListener onGestureListener = new DefaultGestureListener(mViewFinder);
         mGestureDetector = new EnchancedGestureDetector(recyclerView.getContext(), onGestureListener);
         mGestureDetector.setLongpressEnabled(isLongPressEnabled());
         recyclerView.addOnItemTouchListener(mOnItemTouchListener);
@@ -113,6 +147,10 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
     protected void onDetachedFromRecyclerView(@NonNull final RecyclerView recyclerView) {
         recyclerView.removeOnItemTouchListener(mOnItemTouchListener);
         mGestureDetector = null;
+        if (mViewFinder != null) {
+            mViewFinder.detach();
+            mViewFinder = null;
+        }
     }
 
     protected boolean performClick(@NonNull final RecyclerView.ViewHolder viewHolder,
@@ -156,12 +194,16 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
         @Nullable
         private ClickableViewFinder.Target mTarget;
 
-        DefaultGestureListener(@NonNull final RecyclerView recyclerView) {
-            mViewFinder = new ClickableViewFinder(recyclerView, mCallback);
+        DefaultGestureListener(@NonNull final ClickableViewFinder viewFinder) {
+            mViewFinder = viewFinder;
         }
 
         @Override
         public boolean onDown(@NonNull final MotionEvent event) {
+            if (mTarget != null) {
+                // Target instance is reused, so release the previous view first
+                clearTarget();
+            }
             mTarget = mViewFinder.findTarget(event.getX(), event.getY());
             return (mTarget != null);
         }
@@ -176,9 +218,17 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
         @Override
         public boolean onSingleTapUp(@NonNull final MotionEvent event) {
             if (mTarget != null) {
+                // Event times have millisecond resolution, so only the delay before
+                // the dispatch is measured with them
+                final TouchLatencyStats touchLatencyStats = mTouchLatencyStats;
+                final long dispatchDelayMillis = SystemClock.uptimeMillis() - event.getEventTime();
+                final long dispatchStartNanos = System.nanoTime();
                 final boolean handled = performClick(mTarget.getViewHolder(), mTarget.getView());
-                mTarget.setPressed(false);
-                mTarget = null;
+                clearTarget();
+                if (touchLatencyStats != null) {
+                    touchLatencyStats.record(TimeUnit.MILLISECONDS.toNanos(dispatchDelayMillis) +
+                            System.nanoTime() - dispatchStartNanos);
+                }
                 return handled;
             }
             return false;
@@ -186,8 +236,15 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
 
         @Override
         public void onHidePress() {
+            if (mTarget != null) {
+                clearTarget();
+            }
+        }
+
+        private void clearTarget() {
             if (mTarget != null) {
                 mTarget.setPressed(false);
+                mTarget.clear();
                 mTarget = null;
             }
         }
@@ -195,7 +252,12 @@ public class ItemClickHelper<E> extends RecyclerViewOwner {
         @Override
         public void onLongPress(@NonNull final MotionEvent e) {
             if (mTarget != null) {
+                final TouchLatencyStats longPressLatencyStats = mLongPressLatencyStats;
+                final long dispatchStartNanos = System.nanoTime();
                 performLongPress(mTarget.getViewHolder(), mTarget.getView());
+                if (longPressLatencyStats != null) {
+                    longPressLatencyStats.record(System.nanoTime() - dispatchStartNanos);
+                }
             }
         }
 
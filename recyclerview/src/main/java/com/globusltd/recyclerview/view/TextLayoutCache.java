@@ -0,0 +1,315 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.view;
+
+import android.os.AsyncTask;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache of text layouts of items that are built ahead of the scroll on the background thread.
+ * <p>
+ * Set it to the adapter with {@link com.globusltd.recyclerview.Adapter#setTextLayoutCache(TextLayoutCache)}
+ * and layouts of items that are about to appear on the screen are built on the {@link Executor}
+ * for the width the layouts have been requested for the last time. Bound view holders pick layouts
+ * up with {@link #getLayout(Object, int)}, so text measurement moves out of the scroll frame.
+ * Views that draw the {@link Layout} directly use it as is, for {@link android.widget.TextView}s
+ * measuring the text in the background warms up the platform text caches.
+ * <p>
+ * Layouts are kept in the LRU cache and are keyed by the item and the width,
+ * so items should be immutable and implement {@link Object#equals(Object)}.
+ * Items waiting to be laid out are queued in a buffer that is reused between frames,
+ * the oldest ones are dropped when the queue is full.
+ *
+ * @param <E> Type of elements handled by adapter.
+ */
+public class TextLayoutCache<E> {
+
+    private static final int DEFAULT_MAX_LAYOUTS = 100;
+
+    /**
+     * Provides the text of the item to lay out.
+     *
+     * @param <E> Type of elements handled by adapter.
+     */
+    public interface TextProvider<E> {
+
+        /**
+         * Returns the text of the item. Called from both the main and the worker threads.
+         *
+         * @param item The item of the adapter.
+         * @return The text to lay out.
+         */
+        @Nullable
+        CharSequence getText(@NonNull final E item);
+
+    }
+
+    @NonNull
+    private final TextProvider<? super E> mTextProvider;
+
+    @NonNull
+    private final TextPaint mPaint;
+
+    /**
+     * Copy of the paint used on the worker thread, since paints are not thread-safe.
+     */
+    @NonNull
+    private final TextPaint mWorkerPaint;
+
+    @NonNull
+    private final Executor mExecutor;
+
+    @NonNull
+    private final LruCache<Key, Layout> mLayouts;
+
+    @NonNull
+    private final Runnable mPrefetchRunnable;
+
+    @NonNull
+    private final AtomicBoolean mPrefetchScheduled;
+
+    @NonNull
+    private final Object mPendingLock;
+
+    /**
+     * Items waiting to be laid out, guarded by {@link #mPendingLock}.
+     */
+    @NonNull
+    private final Object[] mPendingItems;
+
+    private int mPendingCount;
+
+    /**
+     * Incremented when layouts are evicted, so layouts
+     * that are being built at that moment will be dropped.
+     */
+    private volatile int mGeneration;
+
+    private volatile int mWidth;
+
+    private int mHitCount;
+    private int mMissCount;
+
+    public TextLayoutCache(@NonNull final TextProvider<? super E> textProvider,
+                           @NonNull final TextPaint paint) {
+        this(textProvider, paint, DEFAULT_MAX_LAYOUTS, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param textProvider Provides the text of items.
+     * @param paint        The paint to lay text out with, it's copied so further
+     *                     changes of the paint don't affect layouts.
+     * @param maxLayouts   Maximum number of layouts kept in memory.
+     * @param executor     The executor to build layouts on.
+     */
+    public TextLayoutCache(@NonNull final TextProvider<? super E> textProvider,
+                           @NonNull final TextPaint paint,
+                           @IntRange(from = 1) final int maxLayouts,
+                           @NonNull final Executor executor) {
+        mTextProvider = textProvider;
+        mPaint = new TextPaint(paint);
+        mWorkerPaint = new TextPaint(paint);
+        mExecutor = executor;
+        mLayouts = new LruCache<>(maxLayouts);
+        mPrefetchRunnable = new PrefetchRunnable();
+        mPrefetchScheduled = new AtomicBoolean();
+        mPendingLock = new Object();
+        mPendingItems = new Object[maxLayouts];
+    }
+
+    /**
+     * Returns the layout of the item text. The layout is built on the calling thread
+     * if it has not been prefetched. The width is remembered for further prefetches.
+     *
+     * @param item  The item of the adapter.
+     * @param width The width of the text in pixels.
+     * @return The layout of the item text.
+     */
+    @MainThread
+    @NonNull
+    public Layout getLayout(@NonNull final E item, @IntRange(from = 0) final int width) {
+        mWidth = width;
+        final Key key = new Key(item, width);
+        Layout layout = mLayouts.get(key);
+        if (layout != null) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+            layout = buildLayout(item, width, mPaint);
+            mLayouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Queues building layouts of items in the background. Items are skipped
+     * until the width is known from {@link #getLayout(Object, int)}.
+     *
+     * @param items Items that are about to appear on the screen, closest first.
+     */
+    @MainThread
+    public void prefetch(@NonNull final List<? extends E> items) {
+        if (mWidth <= 0 || items.isEmpty()) {
+            return;
+        }
+
+        synchronized (mPendingLock) {
+            final Object[] pendingItems = mPendingItems;
+            final int size = items.size();
+            for (int i = 0; i < size; i++) {
+                if (mPendingCount == pendingItems.length) {
+                    // Drop the oldest item, it's likely on the screen already
+                    mPendingCount--;
+                    System.arraycopy(pendingItems, 1, pendingItems, 0, mPendingCount);
+                }
+                pendingItems[mPendingCount++] = items.get(i);
+            }
+        }
+
+        if (mPrefetchScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(mPrefetchRunnable);
+        }
+    }
+
+    /**
+     * Drops all cached layouts, e.g. when the text appearance has been changed.
+     */
+    @MainThread
+    public void evictAll() {
+        synchronized (mPendingLock) {
+            mGeneration++;
+            Arrays.fill(mPendingItems, 0, mPendingCount, null);
+            mPendingCount = 0;
+            mLayouts.evictAll();
+        }
+    }
+
+    /**
+     * Returns the number of layouts requested by {@link #getLayout(Object, int)}
+     * that have been found in the cache.
+     */
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Returns the number of layouts requested by {@link #getLayout(Object, int)}
+     * that have been built on the main thread.
+     */
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    @NonNull
+    private Layout buildLayout(@NonNull final E item, final int width,
+                               @NonNull final TextPaint paint) {
+        final CharSequence text = mTextProvider.getText(item);
+        return new StaticLayout(text != null ? text : "", paint, width,
+                Layout.Alignment.ALIGN_NORMAL, 1.0f, 0.0f, true);
+    }
+
+    private static class Key {
+
+        @NonNull
+        final Object mItem;
+
+        final int mWidth;
+
+        Key(@NonNull final Object item, final int width) {
+            mItem = item;
+            mWidth = width;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return (mWidth == key.mWidth && mItem.equals(key.mItem));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mItem.hashCode() + mWidth;
+        }
+
+    }
+
+    private class PrefetchRunnable implements Runnable {
+
+        @WorkerThread
+        @Override
+        public void run() {
+            do {
+                final int generation;
+                final Object[] items;
+                synchronized (mPendingLock) {
+                    generation = mGeneration;
+                    items = Arrays.copyOf(mPendingItems, mPendingCount);
+                    Arrays.fill(mPendingItems, 0, mPendingCount, null);
+                    mPendingCount = 0;
+                }
+                prefetch(items, mWidth, generation);
+                mPrefetchScheduled.set(false);
+
+                // Prefetch again if new items have been queued while we were busy
+            } while (hasPending() && mPrefetchScheduled.compareAndSet(false, true));
+        }
+
+        private boolean hasPending() {
+            synchronized (mPendingLock) {
+                return (mPendingCount > 0);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void prefetch(@NonNull final Object[] items, final int width,
+                              final int generation) {
+            for (final Object item : items) {
+                final Key key = new Key(item, width);
+                if (mLayouts.get(key) == null) {
+                    final Layout layout = buildLayout((E) item, width, mWorkerPaint);
+                    synchronized (mPendingLock) {
+                        if (generation != mGeneration) {
+                            // Layouts have been evicted, e.g. the text appearance has been changed
+                            return;
+                        }
+                        mLayouts.put(key, layout);
+                    }
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.view;
+
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Collects latencies between touch events and the moment item click callbacks return.
+ * Latencies are measured in nanoseconds, since the click path is expected to take
+ * less than a millisecond.
+ * <p>
+ * Only the most recent latencies are kept, so percentiles reflect the current behavior
+ * of the list. Recording doesn't allocate memory, so the stats can be left enabled
+ * in release builds.
+ *
+ * @see ItemClickHelper#setTouchLatencyStats(TouchLatencyStats)
+ * @see ItemClickHelper#setLongPressLatencyStats(TouchLatencyStats)
+ */
+@MainThread
+public class TouchLatencyStats {
+
+    private static final int DEFAULT_CAPACITY = 128;
+
+    @NonNull
+    private final long[] mLatencies;
+
+    @NonNull
+    private final long[] mSortedLatencies;
+
+    private int mCount;
+    private int mNextIndex;
+
+    public TouchLatencyStats() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Maximum number of the most recent latencies kept.
+     */
+    public TouchLatencyStats(@IntRange(from = 1) final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity should be positive");
+        }
+        mLatencies = new long[capacity];
+        mSortedLatencies = new long[capacity];
+    }
+
+    /**
+     * Records the latency of a single callback.
+     *
+     * @param latencyNanos Time between the touch event and the callback in nanoseconds.
+     */
+    void record(final long latencyNanos) {
+        mLatencies[mNextIndex] = latencyNanos;
+        mNextIndex = (mNextIndex + 1) % mLatencies.length;
+        mCount = Math.min(mCount + 1, mLatencies.length);
+    }
+
+    /**
+     * Returns the number of recorded latencies, up to the capacity.
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Returns the latency the given percentage of callbacks fit in,
+     * e.g. 0.5 for the median and 0.99 for the 99th percentile.
+     *
+     * @param percentile The percentile from 0 to 1.
+     * @return The latency in nanoseconds or -1 if nothing has been recorded.
+     */
+    public long getPercentile(@FloatRange(from = 0.0, to = 1.0) final double percentile) {
+        if (mCount == 0) {
+            return -1L;
+        }
+
+        System.arraycopy(mLatencies, 0, mSortedLatencies, 0, mCount);
+        Arrays.sort(mSortedLatencies, 0, mCount);
+        final int index = (int) Math.ceil(percentile * mCount) - 1;
+        return mSortedLatencies[Math.min(Math.max(index, 0), mCount - 1)];
+    }
+
+    /**
+     * Drops all recorded latencies.
+     */
+    public void reset() {
+        mCount = 0;
+        mNextIndex = 0;
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import com.globusltd.recyclerview.diff.FieldChanges;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchingDatasourceObservableTest {
+
+    @Test
+    public void adjacentInsertionsAreMerged() {
+        final ListDatasource<String> datasource = new ListDatasource<>();
+        final ApplyingDatasourceObserver observer = new ApplyingDatasourceObserver(datasource);
+        datasource.beginBatch();
+        for (int i = 0; i < 10; i++) {
+            datasource.add(i / 2, "new" + i);
+        }
+        datasource.endBatch();
+        observer.assertApplied(datasource);
+        assertEquals(1, observer.mEventsCount);
+    }
+
+    @Test
+    public void adjacentRemovalsAreMerged() {
+        final ListDatasource<String> datasource = new ListDatasource<>(items(20));
+        final ApplyingDatasourceObserver observer = new ApplyingDatasourceObserver(datasource);
+        datasource.beginBatch();
+        for (int i = 0; i < 10; i++) {
+            datasource.remove(10 - i / 2);
+        }
+        datasource.endBatch();
+        observer.assertApplied(datasource);
+        assertEquals(1, observer.mEventsCount);
+    }
+
+    @Test
+    public void adjacentFieldChangesAreMerged() {
+        final BatchingDatasourceObservable observable = new BatchingDatasourceObservable();
+        final List<Object> payloads = new ArrayList<>();
+        observable.registerObserver(new DatasourceObserver() {
+
+            @Override
+            public void onItemRangeChanged(final int positionStart, final int itemCount,
+                                           final Object payload) {
+                assertEquals(2, positionStart);
+                assertEquals(3, itemCount);
+                payloads.add(payload);
+            }
+
+        });
+
+        observable.beginBatch();
+        observable.notifyItemRangeChanged(3, 1, FieldChanges.of(FieldChanges.maskOf(0)));
+        observable.notifyItemRangeChanged(2, 1, FieldChanges.of(FieldChanges.maskOf(1)));
+        observable.notifyItemRangeChanged(4, 1, FieldChanges.of(FieldChanges.maskOf(0)));
+        observable.endBatch();
+
+        assertEquals(1, payloads.size());
+        assertEquals(FieldChanges.of(FieldChanges.maskOf(0) | FieldChanges.maskOf(1)), payloads.get(0));
+    }
+
+    @Test
+    public void genericChangeSupersedesOtherChanges() {
+        final BatchingDatasourceObservable observable = new BatchingDatasourceObservable();
+        final int[] eventsCount = new int[2];
+        observable.registerObserver(new DatasourceObserver() {
+
+            @Override
+            public void onChanged() {
+                eventsCount[0]++;
+            }
+
+            @Override
+            public void onItemRangeInserted(final int positionStart, final int itemCount) {
+                eventsCount[1]++;
+            }
+
+            @Override
+            public void onItemRangeRemoved(final int positionStart, final int itemCount) {
+                eventsCount[1]++;
+            }
+
+        });
+
+        observable.beginBatch();
+        observable.notifyItemRangeInserted(0, 1);
+        observable.notifyChanged();
+        observable.notifyItemRangeRemoved(0, 1);
+        observable.endBatch();
+        assertEquals(1, eventsCount[0]);
+        assertEquals(0, eventsCount[1]);
+    }
+
+    @Test
+    public void nestedBatchesAreDispatchedOnce() {
+        final ListDatasource<String> datasource = new ListDatasource<>();
+        final ApplyingDatasourceObserver observer = new ApplyingDatasourceObserver(datasource);
+        datasource.beginBatch();
+        datasource.add("new1");
+        datasource.beginBatch();
+        datasource.add("new2");
+        datasource.endBatch();
+        assertEquals(0, observer.mEventsCount);
+        datasource.endBatch();
+        observer.assertApplied(datasource);
+        assertEquals(1, observer.mEventsCount);
+    }
+
+    @Test
+    public void endBatchWithoutBeginBatchThrows() {
+        final BatchingDatasourceObservable observable = new BatchingDatasourceObservable();
+        assertFalse(observable.isInBatch());
+        try {
+            observable.endBatch();
+            fail("endBatch() without beginBatch() is ignored");
+        } catch (final IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void randomBatches() {
+        final Random random = new Random(11L);
+        for (int i = 0; i < 2000; i++) {
+            final ListDatasource<String> datasource = new ListDatasource<>(items(random.nextInt(20)));
+            final ApplyingDatasourceObserver observer = new ApplyingDatasourceObserver(datasource);
+            final int operationsCount = random.nextInt(30);
+            datasource.beginBatch();
+            for (int j = 0; j < operationsCount; j++) {
+                final int size = datasource.size();
+                final int operation = (size == 0 ? 0 : random.nextInt(4));
+                if (operation == 0) {
+                    datasource.add(random.nextInt(size + 1), "new" + j);
+                } else if (operation == 1) {
+                    datasource.remove(random.nextInt(size));
+                } else if (operation == 2) {
+                    final int position = random.nextInt(size);
+                    datasource.set(position, datasource.get(position) + "'");
+                } else {
+                    datasource.move(random.nextInt(size), random.nextInt(size));
+                }
+            }
+            datasource.endBatch();
+            observer.assertApplied(datasource);
+        }
+    }
+
+    private static List<String> items(final int size) {
+        final List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add("item" + i);
+        }
+        return items;
+    }
+
+    /**
+     * Applies dispatched events to a copy of the datasource taken at the beginning.
+     * Inserted items are unknown to the observer, so null placeholders are inserted.
+     */
+    private static class ApplyingDatasourceObserver extends DatasourceObserver {
+
+        private final List<String> mItems;
+        private final Set<String> mChangedItems;
+
+        int mEventsCount;
+        boolean mChanged;
+
+        ApplyingDatasourceObserver(final ListDatasource<String> datasource) {
+            mItems = new ArrayList<>();
+            for (int i = 0; i < datasource.size(); i++) {
+                mItems.add(datasource.get(i));
+            }
+            mChangedItems = new HashSet<>();
+            datasource.registerDatasourceObserver(this);
+        }
+
+        @Override
+        public void onChanged() {
+            mEventsCount++;
+            mChanged = true;
+        }
+
+        @Override
+        public void onItemRangeChanged(final int positionStart, final int itemCount,
+                                       final Object payload) {
+            mEventsCount++;
+            for (int i = 0; i < itemCount; i++) {
+                final String item = mItems.get(positionStart + i);
+                if (item != null) {
+                    mChangedItems.add(item);
+                }
+            }
+        }
+
+        @Override
+        public void onItemRangeInserted(final int positionStart, final int itemCount) {
+            mEventsCount++;
+            for (int i = 0; i < itemCount; i++) {
+                mItems.add(positionStart, null);
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(final int positionStart, final int itemCount) {
+            mEventsCount++;
+            for (int i = 0; i < itemCount; i++) {
+                mItems.remove(positionStart);
+            }
+        }
+
+        @Override
+        public void onItemMoved(final int fromPosition, final int toPosition) {
+            mEventsCount++;
+            mItems.add(toPosition, mItems.remove(fromPosition));
+        }
+
+        /**
+         * Checks that the copy matches the datasource: kept items are at their positions,
+         * inserted items are at the positions of the placeholders and every item replaced
+         * by {@link ListDatasource#set(int, Object)} has been reported as changed.
+         */
+        void assertApplied(final ListDatasource<String> datasource) {
+            assertFalse(mChanged);
+            assertEquals(datasource.size(), mItems.size());
+            for (int i = 0; i < mItems.size(); i++) {
+                final String item = mItems.get(i);
+                final String expected = datasource.get(i);
+                if (item == null) {
+                    assertTrue(expected + " is not inserted", expected.startsWith("new"));
+                } else if (!item.equals(expected)) {
+                    assertEquals(item, withoutPrimes(expected));
+                    assertTrue(item + " is replaced without a change event", mChangedItems.contains(item));
+                }
+            }
+        }
+
+        private static String withoutPrimes(final String item) {
+            int end = item.length();
+            while (end > 0 && item.charAt(end - 1) == '\'') {
+                end--;
+            }
+            return item.substring(0, end);
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.datasource;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentListDatasourceTest {
+
+    private static final int MAX_CHUNK_SIZE = 32;
+
+    @Test
+    public void emptyDatasource() {
+        final PersistentListDatasource<Integer> datasource = new PersistentListDatasource<>();
+        assertEquals(0, datasource.size());
+        assertContent(new ArrayList<Integer>(), datasource.add(0).remove(0));
+    }
+
+    @Test
+    public void chunksAreSplitAndMerged() {
+        final Random random = new Random(8L);
+        for (int i = 0; i < 300; i++) {
+            final List<Integer> items = sequence(random.nextInt(3000));
+            PersistentListDatasource<Integer> datasource = new PersistentListDatasource<>(items);
+            assertContent(items, datasource);
+
+            // Insertions split full chunks and removals merge small ones
+            final int modificationsCount = random.nextInt(200);
+            for (int j = 0; j < modificationsCount; j++) {
+                final Integer element = -j;
+                final int operation = (items.isEmpty() ? 0 : random.nextInt(3));
+                if (operation == 0) {
+                    final int position = random.nextInt(items.size() + 1);
+                    items.add(position, element);
+                    datasource = datasource.add(position, element);
+                } else if (operation == 1) {
+                    final int position = random.nextInt(items.size());
+                    items.remove(position);
+                    datasource = datasource.remove(position);
+                } else {
+                    final int position = random.nextInt(items.size());
+                    items.set(position, element);
+                    datasource = datasource.set(position, element);
+                }
+            }
+            assertContent(items, datasource);
+        }
+    }
+
+    @Test
+    public void removingAllElements() {
+        final List<Integer> items = sequence(1000);
+        PersistentListDatasource<Integer> datasource = new PersistentListDatasource<>(items);
+        while (!items.isEmpty()) {
+            items.remove(items.size() / 2);
+            datasource = datasource.remove(datasource.size() / 2);
+            assertContent(items, datasource);
+        }
+    }
+
+    @Test
+    public void previousVersionsAreNotModified() {
+        final List<Integer> items = sequence(1000);
+        final PersistentListDatasource<Integer> datasource = new PersistentListDatasource<>(items);
+        datasource.add(500, -1);
+        datasource.remove(500);
+        datasource.set(500, -1);
+        assertContent(items, datasource);
+    }
+
+    @Test
+    public void unchangedChunksAreShared() {
+        final PersistentListDatasource<Integer> datasource = new PersistentListDatasource<>(sequence(1000));
+        final Object[][] oldChunks = datasource.getChunks();
+        final Object[][] newChunks = datasource.set(500, -1).getChunks();
+        assertEquals(oldChunks.length, newChunks.length);
+
+        int sharedCount = 0;
+        for (int i = 0; i < oldChunks.length; i++) {
+            if (oldChunks[i] == newChunks[i]) {
+                sharedCount++;
+            }
+        }
+        assertEquals(oldChunks.length - 1, sharedCount);
+    }
+
+    private static List<Integer> sequence(final int size) {
+        final List<Integer> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    private static void assertContent(final List<Integer> expected,
+                                      final PersistentListDatasource<Integer> datasource) {
+        assertEquals(expected.size(), datasource.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), datasource.get(i));
+        }
+
+        int position = 0;
+        for (final Object[] chunk : datasource.getChunks()) {
+            assertTrue("Chunk of " + chunk.length + " elements", chunk.length <= MAX_CHUNK_SIZE);
+            for (final Object element : chunk) {
+                assertSame(expected.get(position++), element);
+            }
+        }
+        assertEquals(expected.size(), position);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Applies dispatched updates to a copy of the old list. Inserted and changed items
+ * are taken from the new list at the dispatched positions, so the copy equals the new
+ * list only if every update has been dispatched at the right position.
+ */
+class ApplyingListUpdateCallback<T> implements ListUpdateCallback {
+
+    private final List<T> mItems;
+    private final List<T> mNewItems;
+
+    private int mUpdateCount;
+    private int mMoveCount;
+
+    ApplyingListUpdateCallback(final List<T> oldItems, final List<T> newItems) {
+        mItems = new ArrayList<>(oldItems);
+        mNewItems = newItems;
+    }
+
+    /**
+     * Dispatches the diff and checks that the updated copy equals the new list.
+     */
+    static <T> ApplyingListUpdateCallback<T> assertDiff(final List<T> oldItems,
+                                                        final List<T> newItems,
+                                                        final DiffResult diffResult) {
+        final ApplyingListUpdateCallback<T> callback = new ApplyingListUpdateCallback<>(oldItems, newItems);
+        diffResult.dispatchUpdatesTo(callback);
+        assertEquals(oldItems + " -> " + newItems, newItems, callback.mItems);
+        return callback;
+    }
+
+    int getUpdateCount() {
+        return mUpdateCount;
+    }
+
+    int getMoveCount() {
+        return mMoveCount;
+    }
+
+    @Override
+    public void onInserted(final int position, final int count) {
+        mUpdateCount++;
+        for (int i = 0; i < count; i++) {
+            mItems.add(position + i, mNewItems.get(position + i));
+        }
+    }
+
+    @Override
+    public void onRemoved(final int position, final int count) {
+        mUpdateCount++;
+        for (int i = 0; i < count; i++) {
+            mItems.remove(position);
+        }
+    }
+
+    @Override
+    public void onMoved(final int fromPosition, final int toPosition) {
+        mUpdateCount++;
+        mMoveCount++;
+        mItems.add(toPosition, mItems.remove(fromPosition));
+    }
+
+    @Override
+    public void onChanged(final int position, final int count, final Object payload) {
+        mUpdateCount++;
+        for (int i = 0; i < count; i++) {
+            mItems.set(position + i, mNewItems.get(position + i));
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.globusltd.recyclerview.diff.ApplyingListUpdateCallback.assertDiff;
+import static org.junit.Assert.assertEquals;
+
+public class KeyedDiffTest {
+
+    @Test
+    public void emptyLists() {
+        assertKeyedDiff(new ArrayList<TestItem>(), new ArrayList<TestItem>(), true);
+    }
+
+    @Test
+    public void allItemsInserted() {
+        assertKeyedDiff(new ArrayList<TestItem>(), TestItem.sequence(10), true);
+    }
+
+    @Test
+    public void allItemsRemoved() {
+        assertKeyedDiff(TestItem.sequence(10), new ArrayList<TestItem>(), true);
+    }
+
+    @Test
+    public void sameListsDispatchNothing() {
+        final ApplyingListUpdateCallback<TestItem> callback =
+                assertKeyedDiff(TestItem.sequence(10), TestItem.sequence(10), true);
+        assertEquals(0, callback.getUpdateCount());
+    }
+
+    @Test
+    public void allItemsMoved() {
+        final List<TestItem> newItems = TestItem.sequence(10);
+        Collections.reverse(newItems);
+        final ApplyingListUpdateCallback<TestItem> callback =
+                assertKeyedDiff(TestItem.sequence(10), newItems, true);
+        // The longest increasing subsequence of the reversed list is a single item
+        assertEquals(9, callback.getMoveCount());
+    }
+
+    @Test
+    public void allItemsMovedWithoutMoveDetection() {
+        final List<TestItem> newItems = TestItem.sequence(10);
+        Collections.reverse(newItems);
+        final ApplyingListUpdateCallback<TestItem> callback =
+                assertKeyedDiff(TestItem.sequence(10), newItems, false);
+        assertEquals(0, callback.getMoveCount());
+    }
+
+    @Test
+    public void duplicateIds() {
+        final List<TestItem> oldItems = new ArrayList<>();
+        final List<TestItem> newItems = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            oldItems.add(new TestItem(i % 2, i));
+            newItems.add(new TestItem(i % 3, i));
+        }
+        assertKeyedDiff(oldItems, newItems, true);
+        assertKeyedDiff(oldItems, newItems, false);
+    }
+
+    @Test
+    public void randomLists() {
+        final Random random = new Random(1L);
+        for (int i = 0; i < 5000; i++) {
+            final List<TestItem> oldItems = TestItem.randomList(random, random.nextInt(16), 1 + random.nextInt(16));
+            final List<TestItem> newItems = TestItem.randomList(random, random.nextInt(16), 1 + random.nextInt(16));
+            assertKeyedDiff(oldItems, newItems, random.nextBoolean());
+        }
+    }
+
+    @Test
+    public void randomEdits() {
+        final Random random = new Random(2L);
+        for (int i = 0; i < 1000; i++) {
+            final List<TestItem> oldItems = TestItem.sequence(random.nextInt(200));
+            final List<TestItem> newItems = TestItem.edit(random, oldItems, random.nextInt(30), 1000L);
+            assertKeyedDiff(oldItems, newItems, random.nextBoolean());
+        }
+    }
+
+    private static ApplyingListUpdateCallback<TestItem> assertKeyedDiff(final List<TestItem> oldItems,
+                                                                        final List<TestItem> newItems,
+                                                                        final boolean shouldDetectMoves) {
+        final ApplyingListUpdateCallback<TestItem> callback = assertDiff(oldItems, newItems,
+                new TestKeyedDiffCallback(oldItems, newItems, shouldDetectMoves).calculateDiff());
+        if (!shouldDetectMoves) {
+            assertEquals(0, callback.getMoveCount());
+        }
+        return callback;
+    }
+
+}
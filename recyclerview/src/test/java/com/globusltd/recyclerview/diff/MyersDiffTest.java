@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.globusltd.recyclerview.diff.ApplyingListUpdateCallback.assertDiff;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the default diff that trims the same items at the ends of the lists.
+ */
+public class MyersDiffTest {
+
+    @Test
+    public void emptyLists() {
+        assertMyersDiff(new ArrayList<TestItem>(), new ArrayList<TestItem>());
+        assertMyersDiff(new ArrayList<TestItem>(), TestItem.sequence(5));
+        assertMyersDiff(TestItem.sequence(5), new ArrayList<TestItem>());
+    }
+
+    @Test
+    public void sameListsDispatchNothing() {
+        final ApplyingListUpdateCallback<TestItem> callback =
+                assertMyersDiff(TestItem.sequence(10), TestItem.sequence(10));
+        assertEquals(0, callback.getUpdateCount());
+    }
+
+    @Test
+    public void changesInTrimmedItems() {
+        final List<TestItem> oldItems = TestItem.sequence(10);
+        final List<TestItem> newItems = TestItem.sequence(10);
+        newItems.set(0, new TestItem(0, 1));
+        newItems.set(9, new TestItem(9, 1));
+        assertMyersDiff(oldItems, newItems);
+    }
+
+    @Test
+    public void insertionBetweenTrimmedItems() {
+        final List<TestItem> oldItems = TestItem.sequence(10);
+        final List<TestItem> newItems = TestItem.sequence(10);
+        newItems.add(5, new TestItem(100, 0));
+        assertMyersDiff(oldItems, newItems);
+    }
+
+    @Test
+    public void duplicateIdsAtBothEnds() {
+        final List<TestItem> oldItems = new ArrayList<>();
+        final List<TestItem> newItems = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            oldItems.add(new TestItem(0, 0));
+            newItems.add(new TestItem(0, i % 2));
+        }
+        newItems.remove(3);
+        assertMyersDiff(oldItems, newItems);
+    }
+
+    @Test
+    public void randomListsWithCommonEnds() {
+        final Random random = new Random(3L);
+        for (int i = 0; i < 5000; i++) {
+            final List<TestItem> oldItems = new ArrayList<>();
+            final List<TestItem> newItems = new ArrayList<>();
+            final List<TestItem> prefix = TestItem.randomList(random, random.nextInt(5), 5);
+            final List<TestItem> suffix = TestItem.randomList(random, random.nextInt(5), 5);
+            oldItems.addAll(prefix);
+            newItems.addAll(withRandomContents(random, prefix));
+            oldItems.addAll(TestItem.randomList(random, random.nextInt(4), 8));
+            newItems.addAll(TestItem.randomList(random, random.nextInt(4), 8));
+            oldItems.addAll(suffix);
+            newItems.addAll(withRandomContents(random, suffix));
+            assertMyersDiff(oldItems, newItems);
+        }
+    }
+
+    private static List<TestItem> withRandomContents(final Random random, final List<TestItem> items) {
+        final List<TestItem> changedItems = new ArrayList<>(items.size());
+        for (final TestItem item : items) {
+            changedItems.add(new TestItem(item.mId, random.nextInt(2)));
+        }
+        return changedItems;
+    }
+
+    private static ApplyingListUpdateCallback<TestItem> assertMyersDiff(final List<TestItem> oldItems,
+                                                                        final List<TestItem> newItems) {
+        return assertDiff(oldItems, newItems,
+                new TestDiffCallback(oldItems, newItems, true).calculateDiff());
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.globusltd.recyclerview.diff.ApplyingListUpdateCallback.assertDiff;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of stitching results of chunks diffed in parallel.
+ */
+public class ParallelDiffTest {
+
+    private static final int PARALLELISM = 4;
+    private static final int CHUNK_SIZE = 8;
+
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setUp() {
+        mExecutor = Executors.newFixedThreadPool(PARALLELISM);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void emptyLists() {
+        assertParallelDiff(new ArrayList<TestItem>(), new ArrayList<TestItem>());
+        assertParallelDiff(new ArrayList<TestItem>(), TestItem.sequence(100));
+        assertParallelDiff(TestItem.sequence(100), new ArrayList<TestItem>());
+    }
+
+    @Test
+    public void allItemsMoved() {
+        final List<TestItem> newItems = TestItem.sequence(100);
+        Collections.reverse(newItems);
+        assertParallelDiff(TestItem.sequence(100), newItems);
+    }
+
+    @Test
+    public void duplicateIds() {
+        final Random random = new Random(4L);
+        for (int i = 0; i < 200; i++) {
+            final List<TestItem> oldItems = TestItem.randomList(random, 50 + random.nextInt(100), 40);
+            final List<TestItem> newItems = TestItem.randomList(random, 50 + random.nextInt(100), 40);
+            assertParallelDiff(oldItems, newItems);
+        }
+    }
+
+    @Test
+    public void randomEdits() {
+        final Random random = new Random(5L);
+        for (int i = 0; i < 500; i++) {
+            final List<TestItem> oldItems = TestItem.sequence(random.nextInt(400));
+            final List<TestItem> newItems = TestItem.edit(random, oldItems, random.nextInt(60), 1000L);
+            assertParallelDiff(oldItems, newItems);
+        }
+    }
+
+    @Test
+    public void chunkFailureIsRethrown() {
+        final List<TestItem> oldItems = TestItem.sequence(100);
+        final List<TestItem> newItems = TestItem.sequence(100);
+        newItems.set(50, new TestItem(50, 1));
+        final DiffCallback callback = new ParallelDiffCallback(
+                new TestKeyedDiffCallback(oldItems, newItems, true) {
+
+                    @Override
+                    public boolean areContentsTheSame(final int oldItemPosition,
+                                                      final int newItemPosition) {
+                        throw new IllegalStateException("Expected");
+                    }
+
+                }, mExecutor, PARALLELISM, CHUNK_SIZE);
+
+        try {
+            callback.calculateDiff();
+            fail("Failure of the chunk diff has been lost");
+        } catch (final IllegalStateException e) {
+            assertEquals("Expected", e.getMessage());
+        }
+    }
+
+    private void assertParallelDiff(final List<TestItem> oldItems, final List<TestItem> newItems) {
+        final DiffCallback callback = new ParallelDiffCallback(
+                new TestKeyedDiffCallback(oldItems, newItems, true),
+                mExecutor, PARALLELISM, CHUNK_SIZE);
+        assertDiff(oldItems, newItems, callback.calculateDiff());
+    }
+
+}
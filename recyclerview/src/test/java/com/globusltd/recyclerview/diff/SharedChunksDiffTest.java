@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import com.globusltd.recyclerview.datasource.Datasource;
+import com.globusltd.recyclerview.datasource.PersistentListDatasource;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.globusltd.recyclerview.diff.ApplyingListUpdateCallback.assertDiff;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the diff between versions of {@link PersistentListDatasource} that skips shared chunks.
+ */
+public class SharedChunksDiffTest {
+
+    @Test
+    public void emptyVersions() {
+        final PersistentListDatasource<TestItem> empty = new PersistentListDatasource<>();
+        assertSharedChunksDiff(empty, empty);
+        assertSharedChunksDiff(empty, empty.add(new TestItem(0, 0)));
+        assertSharedChunksDiff(new PersistentListDatasource<>(TestItem.sequence(100)), empty);
+    }
+
+    @Test
+    public void sameVersionDispatchesNothing() {
+        final PersistentListDatasource<TestItem> datasource =
+                new PersistentListDatasource<>(TestItem.sequence(1000));
+        final ApplyingListUpdateCallback<TestItem> callback =
+                assertSharedChunksDiff(datasource, datasource);
+        assertEquals(0, callback.getUpdateCount());
+    }
+
+    @Test
+    public void unrelatedVersions() {
+        final Random random = new Random(6L);
+        for (int i = 0; i < 200; i++) {
+            final PersistentListDatasource<TestItem> oldDatasource = new PersistentListDatasource<>(
+                    TestItem.randomList(random, random.nextInt(100), 30));
+            final PersistentListDatasource<TestItem> newDatasource = new PersistentListDatasource<>(
+                    TestItem.randomList(random, random.nextInt(100), 30));
+            assertSharedChunksDiff(oldDatasource, newDatasource);
+        }
+    }
+
+    @Test
+    public void randomModifications() {
+        final Random random = new Random(7L);
+        for (int i = 0; i < 1000; i++) {
+            final PersistentListDatasource<TestItem> oldDatasource =
+                    new PersistentListDatasource<>(TestItem.sequence(random.nextInt(2000)));
+            PersistentListDatasource<TestItem> newDatasource = oldDatasource;
+            long nextId = 10000L;
+            final int modificationsCount = random.nextInt(50);
+            for (int j = 0; j < modificationsCount; j++) {
+                final int size = newDatasource.size();
+                final int operation = (size == 0 ? 0 : random.nextInt(3));
+                if (operation == 0) {
+                    newDatasource = newDatasource.add(random.nextInt(size + 1), new TestItem(nextId++, 0));
+                } else if (operation == 1) {
+                    newDatasource = newDatasource.remove(random.nextInt(size));
+                } else {
+                    final int position = random.nextInt(size);
+                    final TestItem item = newDatasource.get(position);
+                    newDatasource = newDatasource.set(position, new TestItem(item.mId, item.mContent + 1));
+                }
+            }
+            assertSharedChunksDiff(oldDatasource, newDatasource);
+        }
+    }
+
+    private static ApplyingListUpdateCallback<TestItem> assertSharedChunksDiff(
+            final PersistentListDatasource<TestItem> oldDatasource,
+            final PersistentListDatasource<TestItem> newDatasource) {
+        final DiffCallback callback = new SimpleDatasourcesDiffCallback<TestItem>(oldDatasource, newDatasource) {
+
+            @Override
+            public boolean areItemsTheSame(final TestItem oldItem, final TestItem newItem) {
+                return (oldItem.mId == newItem.mId);
+            }
+
+            @Override
+            public boolean areContentsTheSame(final TestItem oldItem, final TestItem newItem) {
+                return (oldItem.mContent == newItem.mContent);
+            }
+
+        };
+        return assertDiff(toList(oldDatasource), toList(newDatasource), callback.calculateDiff());
+    }
+
+    private static List<TestItem> toList(final Datasource<TestItem> datasource) {
+        final int size = datasource.size();
+        final List<TestItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(datasource.get(i));
+        }
+        return items;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import java.util.List;
+
+/**
+ * {@link DiffCallback} that compares lists of {@link TestItem}s without stable ids,
+ * so the default Myers's difference algorithm is used.
+ */
+class TestDiffCallback extends DiffCallback {
+
+    private final List<TestItem> mOldItems;
+    private final List<TestItem> mNewItems;
+
+    TestDiffCallback(final List<TestItem> oldItems, final List<TestItem> newItems,
+                     final boolean shouldDetectMoves) {
+        super(shouldDetectMoves);
+        mOldItems = oldItems;
+        mNewItems = newItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return (mOldItems.get(oldItemPosition).mId == mNewItems.get(newItemPosition).mId);
+    }
+
+    @Override
+    public boolean areContentsTheSame(final int oldItemPosition, final int newItemPosition) {
+        return (mOldItems.get(oldItemPosition).mContent == mNewItems.get(newItemPosition).mContent);
+    }
+
+}
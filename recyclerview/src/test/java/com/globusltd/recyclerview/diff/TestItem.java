@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Immutable list item with an id and a content version.
+ */
+final class TestItem {
+
+    final long mId;
+    final int mContent;
+
+    TestItem(final long id, final int content) {
+        mId = id;
+        mContent = content;
+    }
+
+    /**
+     * Returns a list of items with random ids from 0 to idRange exclusive,
+     * so the list contains duplicate ids when idRange is small.
+     */
+    static List<TestItem> randomList(final Random random, final int size, final int idRange) {
+        final List<TestItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new TestItem(random.nextInt(idRange), random.nextInt(3)));
+        }
+        return items;
+    }
+
+    /**
+     * Returns a list of items with ids from 0 to size exclusive in order.
+     */
+    static List<TestItem> sequence(final int size) {
+        final List<TestItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new TestItem(i, 0));
+        }
+        return items;
+    }
+
+    /**
+     * Returns a copy of the list with random insertions, removals, changes and moves.
+     */
+    static List<TestItem> edit(final Random random, final List<TestItem> items,
+                               final int editCount, final long firstNewId) {
+        final List<TestItem> edited = new ArrayList<>(items);
+        long nextId = firstNewId;
+        for (int i = 0; i < editCount; i++) {
+            final int operation = (edited.isEmpty() ? 0 : random.nextInt(4));
+            if (operation == 0) {
+                edited.add(random.nextInt(edited.size() + 1), new TestItem(nextId++, 0));
+            } else if (operation == 1) {
+                edited.remove(random.nextInt(edited.size()));
+            } else if (operation == 2) {
+                final int position = random.nextInt(edited.size());
+                final TestItem item = edited.get(position);
+                edited.set(position, new TestItem(item.mId, item.mContent + 1));
+            } else {
+                final TestItem item = edited.remove(random.nextInt(edited.size()));
+                edited.add(random.nextInt(edited.size() + 1), item);
+            }
+        }
+        return edited;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TestItem)) {
+            return false;
+        }
+        final TestItem item = (TestItem) o;
+        return (mId == item.mId && mContent == item.mContent);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (mId ^ (mId >>> 32)) + mContent;
+    }
+
+    @Override
+    public String toString() {
+        return mId + ":" + mContent;
+    }
+
+}
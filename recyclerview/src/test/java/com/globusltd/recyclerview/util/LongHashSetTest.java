@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    public void addAndRemove() {
+        final LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(1L));
+        assertFalse(set.add(1L));
+        assertTrue(set.contains(1L));
+        assertTrue(set.remove(1L));
+        assertFalse(set.remove(1L));
+        assertFalse(set.contains(1L));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void valuesAreKeptInInsertionOrder() {
+        final LongHashSet set = new LongHashSet();
+        for (long value = 20L; value > 0L; value--) {
+            set.add(value * 1000L);
+        }
+        set.remove(10000L);
+        set.add(10000L);
+        final long[] expected = new long[20];
+        int index = 0;
+        for (long value = 20L; value > 0L; value--) {
+            if (value != 10L) {
+                expected[index++] = value * 1000L;
+            }
+        }
+        expected[index] = 10000L;
+        assertArrayEquals(expected, set.toArray());
+    }
+
+    @Test
+    public void removalInsideClusters() {
+        // Small range of values in a small table makes long probe clusters, so removals
+        // shift back entries that wrap around the end of the table
+        final Random random = new Random(9L);
+        for (int i = 0; i < 200; i++) {
+            final LongHashSet set = new LongHashSet();
+            final Set<Long> expected = new LinkedHashSet<>();
+            for (int j = 0; j < 2000; j++) {
+                final long value = random.nextInt(24) - 12;
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(value), set.remove(value));
+                } else {
+                    assertEquals(expected.add(value), set.add(value));
+                }
+                assertContent(expected, set);
+            }
+        }
+    }
+
+    @Test
+    public void removalWhileGrowing() {
+        final Random random = new Random(10L);
+        final LongHashSet set = new LongHashSet();
+        final Set<Long> expected = new LinkedHashSet<>();
+        for (int j = 0; j < 20000; j++) {
+            final long value = random.nextLong() % 5000L;
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+        }
+        assertContent(expected, set);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.toArray().length);
+    }
+
+    private static void assertContent(final Set<Long> expected, final LongHashSet set) {
+        assertEquals(expected.size(), set.size());
+        for (final long value : expected) {
+            assertTrue(set.contains(value));
+        }
+
+        final List<Long> values = new ArrayList<>();
+        for (final long value : set.toArray()) {
+            values.add(value);
+        }
+        assertEquals(new ArrayList<>(expected), values);
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 Globus Ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.globusltd.recyclerview.view;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class HitTestIndexTest {
+
+    private static final int CONTAINER_ID = 1;
+    private static final int BUTTON_ID = 2;
+
+    private static final ClickableViews CLICKABLE_VIEWS = new ClickableViews(ClickableViews.NO_ID, BUTTON_ID);
+
+    private FrameLayout mItemView;
+    private FrameLayout mContainer;
+    private View mButton;
+    private HitTestIndex mHitTestIndex;
+
+    @Before
+    public void setUp() {
+        final Context context = RuntimeEnvironment.application;
+        mItemView = new FrameLayout(context);
+        mContainer = new FrameLayout(context);
+        mContainer.setId(CONTAINER_ID);
+        mButton = new View(context);
+        mButton.setId(BUTTON_ID);
+        mContainer.addView(mButton);
+        mItemView.addView(mContainer);
+
+        mItemView.layout(0, 0, 200, 100);
+        mContainer.layout(20, 10, 120, 90);
+        mButton.layout(10, 10, 50, 50);
+
+        final RecyclerView hostView = new RecyclerView(context);
+        final ClickableViewFinder finder = new ClickableViewFinder(hostView, new Callback());
+        mHitTestIndex = new HitTestIndex(finder, mItemView);
+    }
+
+    @Test
+    public void viewWithoutTranslation() {
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 30f, 20f));
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 69.5f, 59.5f));
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 29.5f, 20f));
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 70f, 20f));
+    }
+
+    @Test
+    public void translatedView() {
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 30f, 20f));
+
+        // No layout pass happens after the translation changes
+        mButton.setTranslationX(60f);
+        mButton.setTranslationY(-5.5f);
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 30f, 20f));
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 90f, 14.5f));
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 90f, 14f));
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 129.5f, 54f));
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 130f, 54f));
+
+        mButton.setTranslationX(0f);
+        mButton.setTranslationY(0f);
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 30f, 20f));
+    }
+
+    @Test
+    public void viewInTranslatedParent() {
+        mContainer.setTranslationX(-20f);
+        mButton.setTranslationX(0.5f);
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 10f, 20f));
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 10.5f, 20f));
+        assertSame(mButton, mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 50f, 20f));
+        assertNull(mHitTestIndex.findViewAt(CLICKABLE_VIEWS, 50.5f, 20f));
+    }
+
+    private static class Callback implements ItemClickHelper.Callback<Object> {
+
+        @NonNull
+        @Override
+        public Object get(final int position) {
+            return position;
+        }
+
+        @NonNull
+        @Override
+        public ClickableViews getClickableViews(final int position, final int viewType) {
+            return CLICKABLE_VIEWS;
+        }
+
+    }
+
+}
@@ -22,7 +22,6 @@ import android.provider.CallLog;
 import android.support.annotation.NonNull;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
-import android.text.TextUtils;
 import android.text.format.DateUtils;
 import android.text.style.ForegroundColorSpan;
 import android.text.style.StyleSpan;
@@ -34,7 +33,7 @@ import com.globusltd.recyclerview.datasource.Datasource;
 import com.globusltd.recyclerview.datasource.Datasources;
 import com.globusltd.recyclerview.diff.DiffCallback;
 import com.globusltd.recyclerview.diff.DiffCallbackFactory;
-import com.globusltd.recyclerview.diff.SimpleDatasourcesDiffCallback;
+import com.globusltd.recyclerview.diff.SnapshotDatasourcesDiffCallback;
 import com.globusltd.recyclerview.sample.TwoLinesViewHolder;
 
 class CallsAdapter extends Adapter<Cursor, TwoLinesViewHolder> {
@@ -132,29 +131,24 @@ class CallsAdapter extends Adapter<Cursor, TwoLinesViewHolder> {
         @Override
         public DiffCallback createDiffCallback(@NonNull final Datasource<? extends Cursor> oldDatasource,
                                                @NonNull final Datasource<? extends Cursor> newDatasource) {
-            return new SimpleDatasourcesDiffCallback<Cursor>(oldDatasource, newDatasource) {
+            return new SnapshotDatasourcesDiffCallback<Cursor>(oldDatasource, newDatasource) {
 
                 @Override
-                public boolean areItemsTheSame(@NonNull final Cursor oldItem, @NonNull final Cursor newItem) {
-                    final long oldId = oldItem.getLong(oldItem.getColumnIndexOrThrow(CallLog.Calls._ID));
-                    final long newId = newItem.getLong(newItem.getColumnIndexOrThrow(CallLog.Calls._ID));
-                    return oldId == newId;
+                public long getItemId(@NonNull final Cursor item) {
+                    return item.getLong(item.getColumnIndexOrThrow(CallLog.Calls._ID));
                 }
 
                 @Override
-                public boolean areContentsTheSame(@NonNull final Cursor oldItem, @NonNull final Cursor newItem) {
-                    final String oldCachedName = oldItem.getString(oldItem.getColumnIndexOrThrow(CallLog.Calls.CACHED_NAME));
-                    final String newCachedName = newItem.getString(newItem.getColumnIndexOrThrow(CallLog.Calls.CACHED_NAME));
-                    final String oldNumber = oldItem.getString(oldItem.getColumnIndexOrThrow(CallLog.Calls.NUMBER));
-                    final String newNumber = newItem.getString(newItem.getColumnIndexOrThrow(CallLog.Calls.NUMBER));
-                    final long oldDate = oldItem.getLong(oldItem.getColumnIndexOrThrow(CallLog.Calls.DATE));
-                    final long newDate = newItem.getLong(newItem.getColumnIndexOrThrow(CallLog.Calls.DATE));
-                    final long oldDuration = oldItem.getLong(oldItem.getColumnIndexOrThrow(CallLog.Calls.DURATION));
-                    final long newDuration = newItem.getLong(newItem.getColumnIndexOrThrow(CallLog.Calls.DURATION));
-                    return TextUtils.equals(oldCachedName, newCachedName) &&
-                            TextUtils.equals(oldNumber, newNumber) &&
-                            oldDate == newDate &&
-                            oldDuration == newDuration;
+                public int getContentHash(@NonNull final Cursor item) {
+                    final String cachedName = item.getString(item.getColumnIndexOrThrow(CallLog.Calls.CACHED_NAME));
+                    final String number = item.getString(item.getColumnIndexOrThrow(CallLog.Calls.NUMBER));
+                    final long date = item.getLong(item.getColumnIndexOrThrow(CallLog.Calls.DATE));
+                    final long duration = item.getLong(item.getColumnIndexOrThrow(CallLog.Calls.DURATION));
+                    int hash = (cachedName != null ? cachedName.hashCode() : 0);
+                    hash = 31 * hash + (number != null ? number.hashCode() : 0);
+                    hash = 31 * hash + (int) (date ^ (date >>> 32));
+                    hash = 31 * hash + (int) (duration ^ (duration >>> 32));
+                    return hash;
                 }
 
             };
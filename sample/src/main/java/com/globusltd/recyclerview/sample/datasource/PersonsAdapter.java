@@ -17,16 +17,19 @@ package com.globusltd.recyclerview.sample.datasource;
 
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
 import com.globusltd.recyclerview.Adapter;
+import com.globusltd.recyclerview.PartialBinder;
 import com.globusltd.recyclerview.datasource.Datasource;
 import com.globusltd.recyclerview.diff.DiffCallback;
 import com.globusltd.recyclerview.diff.DiffCallbackFactory;
-import com.globusltd.recyclerview.diff.SimpleDatasourcesDiffCallback;
+import com.globusltd.recyclerview.diff.FieldChanges;
+import com.globusltd.recyclerview.diff.KeyedDatasourcesDiffCallback;
 import com.globusltd.recyclerview.sample.R;
 import com.globusltd.recyclerview.sample.TwoLinesViewHolder;
 import com.globusltd.recyclerview.sample.data.Person;
@@ -37,9 +40,32 @@ import com.globusltd.recyclerview.view.ItemClickHelper;
 class PersonsAdapter extends Adapter<Person, PersonsAdapter.TwoLinesAndButtonViewHolder>
         implements ItemClickHelper.Callback<Person>, SimpleEnableBehavior.Callback {
 
+    private static final int FIELD_FIRST_NAME = 0;
+    private static final int FIELD_LAST_NAME = 1;
+
     PersonsAdapter(@NonNull final Datasource<Person> datasource) {
         super(datasource, new PersonDiffCallbackFactory());
         setHasStableIds(true);
+
+        // Update only the line of the changed name instead of the whole item
+        registerPartialBinder(FIELD_FIRST_NAME, new PartialBinder<Person, TwoLinesAndButtonViewHolder>() {
+
+            @Override
+            public void onBindField(@NonNull final TwoLinesAndButtonViewHolder holder,
+                                    @NonNull final Person person, final int position) {
+                holder.setText2(person.getFirstName());
+            }
+
+        });
+        registerPartialBinder(FIELD_LAST_NAME, new PartialBinder<Person, TwoLinesAndButtonViewHolder>() {
+
+            @Override
+            public void onBindField(@NonNull final TwoLinesAndButtonViewHolder holder,
+                                    @NonNull final Person person, final int position) {
+                holder.setText1(person.getLastName());
+            }
+
+        });
     }
 
     @Override
@@ -117,17 +143,33 @@ class PersonsAdapter extends Adapter<Person, PersonsAdapter.TwoLinesAndButtonVie
         @Override
         public DiffCallback createDiffCallback(@NonNull final Datasource<? extends Person> oldDatasource,
                                                @NonNull final Datasource<? extends Person> newDatasource) {
-            return new SimpleDatasourcesDiffCallback<Person>(oldDatasource, newDatasource) {
+            return new KeyedDatasourcesDiffCallback<Person>(oldDatasource, newDatasource) {
 
                 @Override
-                public boolean areItemsTheSame(@NonNull final Person oldItem, @NonNull final Person newItem) {
-                    return oldItem.getId() == newItem.getId();
+                public long getItemId(@NonNull final Person item) {
+                    return item.getId();
                 }
 
                 @Override
                 public boolean areContentsTheSame(@NonNull final Person oldItem, @NonNull final Person newItem) {
-                    return TextUtils.equals(oldItem.getFirstName(), newItem.getFirstName()) &&
-                            TextUtils.equals(oldItem.getLastName(), newItem.getLastName());
+                    return (getChangedFields(oldItem, newItem) == 0);
+                }
+
+                @Nullable
+                @Override
+                public Object getChangePayload(@NonNull final Person oldItem, @NonNull final Person newItem) {
+                    return FieldChanges.of(getChangedFields(oldItem, newItem));
+                }
+
+                private int getChangedFields(@NonNull final Person oldItem, @NonNull final Person newItem) {
+                    int fields = 0;
+                    if (!TextUtils.equals(oldItem.getFirstName(), newItem.getFirstName())) {
+                        fields |= FieldChanges.maskOf(FIELD_FIRST_NAME);
+                    }
+                    if (!TextUtils.equals(oldItem.getLastName(), newItem.getLastName())) {
+                        fields |= FieldChanges.maskOf(FIELD_LAST_NAME);
+                    }
+                    return fields;
                 }
 
             };